@@ -0,0 +1,116 @@
+-- Optional: monthly range-partitioned refresh_token layout (by expires_at)
+-- Requires Flyway migrations up to V7 (family_id, binary hashes, generation) to be applied first.
+-- Old tokens are then removed by dropping whole partitions instead of row deletes.
+-- RefreshTokenSweeper detects the partitioned table and calls
+-- refresh_token_maintain_partitions() on every run (creates upcoming months, drops expired ones).
+--
+-- Notes
+-- - Partitioned tables need the partition key in every unique constraint, so the primary key
+--   becomes (id, expires_at) and token_hash is only indexed, not UNIQUE. Token hashes are
+--   SHA-256 of 256 random bits; uniqueness is not relied upon by the application.
+-- - Run during a quiet period: the copy holds an exclusive lock on the old table.
+-- - Flyway does not know about this layout; later migrations touching refresh_token must
+--   work on the partitioned table as well.
+
+BEGIN;
+
+LOCK TABLE refresh_token IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE refresh_token RENAME TO refresh_token_old;
+ALTER TABLE refresh_token_old RENAME CONSTRAINT refresh_token_pkey TO refresh_token_old_pkey;
+DROP INDEX IF EXISTS idx_refresh_token_user, idx_refresh_token_token_hash,
+  idx_refresh_token_expires_at, idx_refresh_token_revoked_created, idx_refresh_token_family_active;
+ALTER SEQUENCE refresh_token_id_seq OWNED BY NONE;
+
+CREATE TABLE refresh_token (
+  id BIGINT NOT NULL DEFAULT nextval('refresh_token_id_seq'),
+  user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  token_hash BYTEA NOT NULL,
+  expires_at TIMESTAMPTZ NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  revoked BOOLEAN NOT NULL DEFAULT FALSE,
+  user_agent_hash BYTEA,
+  ip_hash BYTEA,
+  family_id UUID NOT NULL DEFAULT gen_random_uuid(),
+  generation INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+ALTER SEQUENCE refresh_token_id_seq OWNED BY refresh_token.id;
+
+-- catches rows outside the maintained range (clock skew, very long expirations)
+CREATE TABLE refresh_token_default PARTITION OF refresh_token DEFAULT;
+
+CREATE INDEX idx_refresh_token_token_hash ON refresh_token(token_hash);
+CREATE INDEX idx_refresh_token_user ON refresh_token(user_id);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token(expires_at);
+CREATE INDEX idx_refresh_token_revoked_created ON refresh_token(created_at) WHERE revoked;
+CREATE INDEX idx_refresh_token_family_active ON refresh_token(family_id) WHERE NOT revoked;
+
+-- Creates partitions from the current month up to months_ahead and drops monthly partitions
+-- whose whole range expired more than retain_months ago. Returns the number of dropped partitions.
+CREATE OR REPLACE FUNCTION refresh_token_maintain_partitions(months_ahead INT, retain_months INT)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+  month_start DATE;
+  part RECORD;
+  dropped INT := 0;
+BEGIN
+  FOR i IN 0..months_ahead LOOP
+    month_start := (date_trunc('month', now()) + make_interval(months => i))::date;
+    EXECUTE format(
+      'CREATE TABLE IF NOT EXISTS %I PARTITION OF refresh_token FOR VALUES FROM (%L) TO (%L)',
+      'refresh_token_' || to_char(month_start, 'YYYY_MM'),
+      month_start, (month_start + INTERVAL '1 month')::date);
+  END LOOP;
+
+  FOR part IN
+    SELECT c.relname
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    JOIN pg_class p ON p.oid = i.inhparent
+    WHERE p.relname = 'refresh_token'
+      AND c.relname ~ '^refresh_token_\d{4}_\d{2}$'
+      AND to_date(substring(c.relname FROM '\d{4}_\d{2}$'), 'YYYY_MM') + INTERVAL '1 month'
+          <= date_trunc('month', now()) - make_interval(months => retain_months)
+  LOOP
+    EXECUTE format('ALTER TABLE refresh_token DETACH PARTITION %I', part.relname);
+    EXECUTE format('DROP TABLE %I', part.relname);
+    dropped := dropped + 1;
+  END LOOP;
+  RETURN dropped;
+END;
+$$;
+
+-- partitions covering all existing rows, then the upcoming months
+DO $$
+DECLARE
+  m DATE;
+BEGIN
+  FOR m IN
+    SELECT DISTINCT date_trunc('month', expires_at)::date FROM refresh_token_old
+    WHERE expires_at >= date_trunc('month', now())
+  LOOP
+    EXECUTE format(
+      'CREATE TABLE IF NOT EXISTS %I PARTITION OF refresh_token FOR VALUES FROM (%L) TO (%L)',
+      'refresh_token_' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+  END LOOP;
+END;
+$$;
+SELECT refresh_token_maintain_partitions(2, 1);
+
+-- already expired tokens are not carried over
+INSERT INTO refresh_token (id, user_id, token_hash, expires_at, created_at, revoked, user_agent_hash, ip_hash, family_id, generation)
+SELECT id, user_id, token_hash, expires_at, created_at, revoked, user_agent_hash, ip_hash, family_id, generation
+FROM refresh_token_old
+WHERE expires_at >= now();
+
+DROP TABLE refresh_token_old;
+
+COMMIT;
+
+-- Verify
+SELECT c.relname AS partition, pg_get_expr(c.relpartbound, c.oid) AS bounds
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'refresh_token'::regclass
+ORDER BY 1;
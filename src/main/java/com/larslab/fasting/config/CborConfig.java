@@ -0,0 +1,37 @@
+package com.larslab.fasting.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR (RFC 8949, {@code application/cbor}) as an alternative to JSON for the API: a client
+ * sending {@code Accept: application/cbor} gets the same DTOs binary-encoded, and request
+ * bodies may be sent as CBOR with that content type.
+ *
+ * The converter is built from Boot's {@link Jackson2ObjectMapperBuilder}, so the CBOR mapper
+ * carries the same customizations as the JSON one (date/duration format, {@code @JsonComponent}
+ * serializers such as {@code FastSessionJsonSerializer}) and both encodings have the same
+ * structure. It replaces Spring MVC's default CBOR converter (plain builder) and goes last, so
+ * JSON stays the answer for {@code Accept: *}{@code /*} and clients without an Accept header.
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder builder;
+
+    public CborConfig(Jackson2ObjectMapperBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()));
+    }
+}
@@ -0,0 +1,180 @@
+package com.larslab.fasting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Conditional GET and precompressed bodies for the cacheable read routes
+ * ({@code compression.cache.routes}: histories and user lookups). The response is buffered,
+ * gets a strong ETag over its bytes ({@code -gz} suffix for the gzip representation, which has
+ * different bytes) and answers a matching {@code If-None-Match} with 304. Responses are marked
+ * {@code Cache-Control: private, no-cache}: per-user data that browsers may keep but must
+ * revalidate, instead of Spring Security's default {@code no-store}, which would make the ETag
+ * useless. Bodies from {@code server.compression.min-response-size} on are gzipped once per
+ * ETag and kept in a byte-bounded cache, so repeated requests for unchanged data are not
+ * compressed again. A cache hit needs the identical uncompressed body, so entries are never
+ * served across users.
+ *
+ * Everything else is compressed by Tomcat ({@code server.compression.*}), except the routes
+ * in {@code compression.exclude-routes}: responses carrying tokens are marked
+ * {@code Content-Encoding: identity} so that secrets are never compressed together with
+ * request-controlled input (BREACH).
+ *
+ * Runs after Spring Security, so only authorized 200 responses are cached.
+ */
+@Component
+public class CompressedResponseCacheFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final long minSize;
+    private final List<PathPattern> routes;
+    private final List<PathPattern> excluded;
+    private final Cache<String, byte[]> gzipByEtag;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CompressedResponseCacheFilter(
+            @Value("${compression.cache.enabled:true}") boolean enabled,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minSize,
+            @Value("${compression.cache.routes:}") String[] routes,
+            @Value("${compression.exclude-routes:}") String[] excludedRoutes,
+            @Value("${compression.cache.max-size:16MB}") DataSize maxSize,
+            @Value("${compression.cache.expire-minutes:10}") long expireMinutes,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.minSize = minSize.toBytes();
+        this.routes = parse(routes);
+        this.excluded = parse(excludedRoutes);
+        this.gzipByEtag = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String etag, byte[] gzip) -> gzip.length)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.hits = registry == null ? null : Counter.builder("http.compression.cache")
+                .description("Precompressed responses served from cache").tag("result", "hit").register(registry);
+        this.misses = registry == null ? null : Counter.builder("http.compression.cache")
+                .description("Responses compressed and cached").tag("result", "miss").register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return !matches(excluded, path) && !("GET".equals(request.getMethod()) && matches(routes, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (matches(excluded, PathContainer.parsePath(request.getRequestURI()))) {
+            // Tomcat skips compression for "identity" and removes the header before sending
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "identity");
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || request.isAsyncStarted()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        String hash = sha256Hex(body).substring(0, 32);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzipped = body.length >= minSize && acceptEncoding != null && acceptEncoding.contains("gzip");
+        // strong ETags identify the bytes on the wire, so the gzip representation needs its own
+        String etag = "\"" + hash + (gzipped ? "-gz\"" : "\"");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || "*".equals(ifNoneMatch.trim()))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (!gzipped) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] gzip = gzipByEtag.getIfPresent(etag);
+        if (gzip != null) {
+            count(hits);
+        } else {
+            gzip = gzip(body);
+            gzipByEtag.put(etag, gzip);
+            count(misses);
+        }
+        response.setContentType(wrapper.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(gzip.length);
+        response.getOutputStream().write(gzip);
+    }
+
+    private static List<PathPattern> parse(String[] patterns) {
+        return Arrays.stream(patterns)
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
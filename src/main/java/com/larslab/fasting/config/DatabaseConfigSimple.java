@@ -23,6 +23,14 @@ public class DatabaseConfigSimple {
     @Value("${DATABASE_URL:}")
     private String databaseUrl;
 
+    // false: start the pool without a connection (CDS training run in the Docker build has no database)
+    @Value("${db.fail-fast:true}")
+    private boolean failFast;
+
+    // Render requires TLS; the native smoke test talks to a local container without it
+    @Value("${db.sslmode:require}")
+    private String sslMode;
+
     @Bean
     @Primary
     public DataSource dataSource() {
@@ -52,7 +60,7 @@ public class DatabaseConfigSimple {
                 }
                 String database = path.startsWith("/") ? path.substring(1) : path;
 
-                String jdbcUrl = String.format("jdbc:postgresql://%s:%d/%s?sslmode=require", host, portNum, database);
+                String jdbcUrl = String.format("jdbc:postgresql://%s:%d/%s?sslmode=%s", host, portNum, database, sslMode);
 
                 logger.info("Parsed connection details - Host: {}, Port: {}, Database: {}, User: {}",
                     host, portNum, database, user);
@@ -68,7 +76,7 @@ public class DatabaseConfigSimple {
         } else {
             logger.warn("DATABASE_URL is empty, using fallback configuration");
             // Fallback configuration
-            config.setJdbcUrl("jdbc:postgresql://localhost:5432/postgres?sslmode=require");
+            config.setJdbcUrl("jdbc:postgresql://localhost:5432/postgres?sslmode=" + sslMode);
             config.setUsername("postgres");
             config.setPassword("password");
         }
@@ -79,6 +87,9 @@ public class DatabaseConfigSimple {
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
+        config.setInitializationFailTimeout(failFast ? 1 : -1);
+        // JDBC batches (fasting import) go out as multi-row INSERTs instead of one statement per row
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         
         return new HikariDataSource(config);
     }
@@ -0,0 +1,47 @@
+package com.larslab.fasting.config;
+
+import com.larslab.fasting.startup.HotPathHealthIndicator;
+import org.flywaydb.core.api.output.ValidateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Migrations run on startup unless {@code db.migrate-on-startup=false}. Unlike
+ * {@code spring.flyway.enabled} this is read at runtime, so it also works for an AOT-processed
+ * build (the CDS training run in the Dockerfile has no database to migrate).
+ *
+ * When migrations are applied elsewhere (release step), {@code db.validate-async=true} still
+ * checks the applied schema against the bundled scripts, on a background thread in parallel
+ * with the rest of the context refresh; readiness ("hotPath") waits for the result.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    FlywayMigrationStrategy flywayMigrationStrategy(@Value("${db.migrate-on-startup:true}") boolean migrateOnStartup,
+                                                    @Value("${db.validate-async:false}") boolean validateAsync,
+                                                    HotPathHealthIndicator readiness) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else if (validateAsync) {
+                readiness.awaitBeforeReady("flywayValidate", CompletableFuture.runAsync(() -> {
+                    long start = System.nanoTime();
+                    ValidateResult result = flyway.validateWithResult();
+                    if (!result.validationSuccessful) {
+                        throw new IllegalStateException("Flyway validation failed: " + result.getAllErrorMessages());
+                    }
+                    log.info("Flyway validation finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+                }, runnable -> Thread.ofPlatform().name("flyway-validate").daemon().start(runnable)));
+            }
+        };
+    }
+}
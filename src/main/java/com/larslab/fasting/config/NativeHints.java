@@ -0,0 +1,118 @@
+package com.larslab.fasting.config;
+
+import com.larslab.fasting.dto.FastImportEvent;
+import com.larslab.fasting.dto.FastStatusResponse;
+import com.larslab.fasting.dto.LoginOrCreateRequest;
+import com.larslab.fasting.dto.LoginOrCreateResponse;
+import com.larslab.fasting.dto.StartFastRequest;
+import com.larslab.fasting.dto.TokenRefreshResponse;
+import com.larslab.fasting.dto.UpdateLanguageRequest;
+import com.larslab.fasting.dto.UpdatePreferencesRequest;
+import com.larslab.fasting.dto.UserPreferencesResponse;
+import com.larslab.fasting.dto.UserResponse;
+import com.larslab.fasting.logging.CountingAsyncAppender;
+import com.larslab.fasting.logging.JdbcTimingSessionListener;
+import com.larslab.fasting.model.FastSession;
+import com.larslab.fasting.model.LanguageConverter;
+import com.larslab.fasting.model.RefreshToken;
+import com.larslab.fasting.model.ThemeConverter;
+import com.larslab.fasting.model.User;
+import com.larslab.fasting.model.UserPreferences;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image ({@code mvn -Pnative}) that Spring AOT
+ * cannot derive: controller bodies typed as {@code ResponseEntity<?>} or written by hand
+ * (import progress), classes that libraries instantiate by name (JJWT's implementation
+ * classes, logback/logstash appenders and providers, the Hibernate session listener from
+ * application.yml) and classpath resources.
+ * Ignored on the JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding({
+    FastStatusResponse.class, LoginOrCreateRequest.class, LoginOrCreateResponse.class, StartFastRequest.class,
+    TokenRefreshResponse.class, UpdateLanguageRequest.class, UpdatePreferencesRequest.class,
+    UserPreferencesResponse.class, UserResponse.class, FastSession.class, FastImportEvent.class
+})
+public class NativeHints {
+
+    private static final MemberCategory[] ALL = {
+        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+        MemberCategory.DECLARED_FIELDS
+    };
+
+    // looked up by name from the jjwt-api facade (Jwts, Jwks, Keys) and by the serializer lookup
+    private static final String[] JJWT = {
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+        "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+        "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyOperations",
+        "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardCurves",
+        "io.jsonwebtoken.impl.security.KeysBridge",
+        "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    // element classes referenced from logback-spring.xml
+    private static final String[] LOGGING = {
+        "net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder",
+        "net.logstash.logback.composite.loggingevent.LoggingEventJsonProviders",
+        "net.logstash.logback.composite.loggingevent.LoggingEventFormattedTimestampJsonProvider",
+        "net.logstash.logback.composite.loggingevent.LoggerNameJsonProvider",
+        "net.logstash.logback.composite.loggingevent.ThreadNameJsonProvider",
+        "net.logstash.logback.composite.loggingevent.LogLevelJsonProvider",
+        "net.logstash.logback.composite.loggingevent.MdcJsonProvider",
+        "net.logstash.logback.composite.loggingevent.MessageJsonProvider",
+        "net.logstash.logback.composite.loggingevent.ArgumentsJsonProvider",
+        "net.logstash.logback.composite.loggingevent.StackTraceJsonProvider"
+    };
+
+    // Swagger 2FA (TOTP)
+    private static final String[] OTP = {
+        "org.jboss.aerogear.security.otp.Totp",
+        "org.jboss.aerogear.security.otp.api.Base32",
+        "org.jboss.aerogear.security.otp.api.Clock",
+        "org.jboss.aerogear.security.otp.api.Hmac"
+    };
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // entities, embeddable and converters (also covered by Spring's JPA AOT processing;
+            // listed so field access and the autoApply converters never depend on it)
+            for (Class<?> type : new Class<?>[]{User.class, FastSession.class, RefreshToken.class,
+                    UserPreferences.class, UserPreferences.Language.class, UserPreferences.Theme.class,
+                    UserPreferences.NotificationPreferences.class, UserPreferences.FastingDefaults.class,
+                    LanguageConverter.class, ThemeConverter.class,
+                    JdbcTimingSessionListener.class, CountingAsyncAppender.class}) {
+                hints.reflection().registerType(type, ALL);
+            }
+            for (String[] group : new String[][]{JJWT, LOGGING, OTP}) {
+                for (String type : group) {
+                    hints.reflection().registerTypeIfPresent(classLoader, type, ALL);
+                }
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+            hints.resources().registerPattern("db/migration/*.sql");
+            hints.resources().registerPattern("openapi/*");
+            hints.resources().registerPattern("logback-spring.xml");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.larslab.fasting.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Serves the OpenAPI document exported at build time ({@code openapi/openapi.json} and its
+ * gzip copy, see {@code OpenApiDocumentExporter}) instead of letting springdoc generate it
+ * by reflection. Both variants are loaded once; clients sending {@code Accept-Encoding: gzip}
+ * get the precompressed bytes, and a strong ETag per representation ({@code -gz} suffix for the
+ * gzip bytes) answers conditional requests with 304.
+ *
+ * Runs behind Spring Security, so the Swagger credentials still apply. With
+ * {@code openapi.precomputed.enabled=false} (dev/docker profiles) springdoc's runtime
+ * generator answers instead; in other profiles a missing artifact means 404.
+ */
+@Component
+public class PrecomputedOpenApiFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecomputedOpenApiFilter.class);
+
+    private final boolean enabled;
+    private final String path;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    public PrecomputedOpenApiFilter(@Value("${openapi.precomputed.enabled:true}") boolean enabled,
+                                    @Value("${springdoc.api-docs.path:/v3/api-docs}") String path) throws IOException {
+        this.enabled = enabled;
+        this.path = path;
+        this.json = enabled ? read("openapi/openapi.json") : null;
+        this.gzip = enabled ? read("openapi/openapi.json.gz") : null;
+        String hash = json != null ? sha256Hex(json).substring(0, 32) : null;
+        this.etag = hash != null ? "\"" + hash + "\"" : null;
+        this.gzipEtag = hash != null ? "\"" + hash + "-gz\"" : null;
+        if (enabled) {
+            if (json == null) {
+                log.error("openapi/openapi.json missing from the build; {} will answer 404 (build without -Dopenapi.skip)", path);
+            } else {
+                log.info("Serving precomputed OpenAPI document at {} ({} bytes, gzip {})", path, json.length,
+                        gzip != null ? gzip.length + " bytes" : "n/a");
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || !path.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (json == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzipped = gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        // strong ETags identify the bytes on the wire, so the gzip representation has its own
+        String representationEtag = gzipped ? gzipEtag : etag;
+        response.setHeader(HttpHeaders.ETAG, representationEtag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"); // revalidate; the ETag makes that a 304
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (representationEtag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = json;
+        if (gzipped) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = gzip;
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] read(String location) throws IOException {
+        ClassPathResource resource = new ClassPathResource(location);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.larslab.fasting.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. EXPLAIN sampling of slow queries).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
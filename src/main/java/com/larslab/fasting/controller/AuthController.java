@@ -1,14 +1,14 @@
 package com.larslab.fasting.controller;
 
 import com.larslab.fasting.dto.TokenRefreshResponse;
-import com.larslab.fasting.model.RefreshToken;
-import com.larslab.fasting.model.User;
 import com.larslab.fasting.security.JwtService;
+import com.larslab.fasting.security.TokenRevocationIndex;
 import com.larslab.fasting.service.RefreshTokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -19,10 +19,12 @@ public class AuthController {
 
     private final RefreshTokenService refreshTokenService;
     private final JwtService jwtService;
+    private final TokenRevocationIndex revocationIndex;
 
-    public AuthController(RefreshTokenService refreshTokenService, JwtService jwtService) {
+    public AuthController(RefreshTokenService refreshTokenService, JwtService jwtService, TokenRevocationIndex revocationIndex) {
         this.refreshTokenService = refreshTokenService;
         this.jwtService = jwtService;
+        this.revocationIndex = revocationIndex;
     }
 
     @PostMapping("/refresh")
@@ -32,17 +34,13 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error("missing_refresh_token"));
         }
         String ip = firstNonNull(splitFirst(xff), realIp);
-        Optional<RefreshToken> tokenOpt = refreshTokenService.validate(rawRefresh, userAgent, ip);
-        if (tokenOpt.isEmpty()) {
+        // validate + revoke + issue successor atomically
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(rawRefresh, userAgent, ip);
+        if (rotation.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error("invalid_refresh_token"));
         }
-        RefreshToken token = tokenOpt.get();
-        User user = token.getUser();
-        // Rotate
-        refreshTokenService.rotate(token, userAgent, ip);
-        String newRefresh = refreshTokenService.createToken(user, userAgent, ip);
-        String newAccess = jwtService.generateAccessToken(user.getUsername());
-        return ResponseEntity.ok(new TokenRefreshResponse(newAccess, newRefresh, 900000));
+        String newAccess = jwtService.generateAccessToken(rotation.get().username(), rotation.get().generation());
+        return ResponseEntity.ok(new TokenRefreshResponse(newAccess, rotation.get().refreshToken(), 900000));
     }
 
     @PostMapping("/logout")
@@ -60,6 +58,15 @@ public class AuthController {
             .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error("invalid_refresh_token")));
     }
 
+    // authenticated by access token: invalidates every access and refresh token of the caller
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(Principal principal) {
+        if (!revocationIndex.revokeAll(principal.getName())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error("unknown_user"));
+        }
+        return ResponseEntity.ok(Map.of("status","revoked_all"));
+    }
+
     private Map<String,String> error(String code) {
         Map<String,String> m = new HashMap<>();
         m.put("error", code);
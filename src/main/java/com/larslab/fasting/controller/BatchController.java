@@ -0,0 +1,73 @@
+package com.larslab.fasting.controller;
+
+import com.larslab.fasting.dto.BatchRequest;
+import com.larslab.fasting.dto.BatchResponse;
+import com.larslab.fasting.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/batch")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:8000", "http://localhost:8080", "http://localhost:4200"})
+@Tag(name = "Batch", description = "Mehrere Operationen eines Users in einem Request (Offline-Sync)")
+@Validated
+public class BatchController {
+
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Operationen gebündelt ausführen",
+               description = "Führt START, STOP, STATUS und PREFERENCES des angemeldeten Users in Reihenfolge in einer Transaktion aus. "
+                       + "Schlägt eine Operation fehl, wird nichts übernommen (committed=false) und die folgenden Operationen erhalten 424. "
+                       + "Requires JWT authentication.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alle Operationen ausgeführt und übernommen"),
+            @ApiResponse(responseCode = "400", description = "Ungültiger Batch oder eine Operation fehlgeschlagen (Details in results)"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+    })
+    public ResponseEntity<BatchResponse> execute(@Valid @RequestBody BatchRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        BatchResponse response = batchService.execute(authentication.getName(), request.getOperations());
+        if (response.isCommitted()) {
+            return ResponseEntity.ok(response);
+        }
+        int status = response.getResults().stream()
+                .mapToInt(BatchResponse.Result::getStatus)
+                .filter(s -> s != 200)
+                .findFirst()
+                .orElse(HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleIllegalArgumentException(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Bad Request");
+        error.put("message", e.getMessage());
+        error.put("status", "400");
+        return error;
+    }
+}
@@ -7,6 +7,7 @@ import com.larslab.fasting.service.UserService;
 import com.larslab.fasting.security.UserAuthorizationService;
 import com.larslab.fasting.dto.StartFastRequest;
 import com.larslab.fasting.dto.FastStatusResponse;
+import com.larslab.fasting.dto.FastSessionChangesResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -200,6 +201,44 @@ public class FastController {
         return ResponseEntity.ok(service.history(user.get()));
     }
 
+    @GetMapping("/user/{identifier}/changes")
+    @Operation(summary = "Änderungen seit einer Version (Delta-Sync)",
+               description = "Gibt nur die seit der Version since angelegten, geänderten und gelöschten Fasten-Sessions zurück, statt der ganzen Historie. "
+                       + "Die Antwort enthält die neue Version für den nächsten Aufruf; since=0 liefert alles. Requires JWT authentication.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Änderungen erfolgreich abgerufen"),
+            @ApiResponse(responseCode = "400", description = "since ist negativ"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - User can only access their own data"),
+            @ApiResponse(responseCode = "404", description = "User nicht gefunden")
+    })
+    public ResponseEntity<FastSessionChangesResponse> changesByUser(@PathVariable String identifier,
+                                                                    @RequestParam(defaultValue = "0") long since) {
+        // Get authenticated user from security context
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        String authenticatedUsername = authentication.getName();
+        
+        // Check if authenticated user matches requested identifier
+        if (!authorizationService.userMatches(authenticatedUsername, identifier)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Optional<User> user = userService.getUserByIdentifier(identifier);
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(service.changesSince(user.get(), since));
+    }
+
     @PostMapping("/user/{identifier}/start")
     @Operation(summary = "Neue Fasten-Session für spezifischen User starten", 
                description = "Startet eine neue Fasten-Session für einen spezifischen User mit optionalem Ziel. Requires JWT authentication.")
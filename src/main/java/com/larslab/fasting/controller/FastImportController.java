@@ -0,0 +1,126 @@
+package com.larslab.fasting.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.larslab.fasting.dto.FastImportEvent;
+import com.larslab.fasting.model.User;
+import com.larslab.fasting.security.UserAuthorizationService;
+import com.larslab.fasting.service.FastImportService;
+import com.larslab.fasting.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/fast")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173", "http://localhost:8000", "http://localhost:8080", "http://localhost:4200"})
+@Tag(name = "Fasting", description = "API zur Verwaltung von Fasten-Sessions mit Ziel-System")
+public class FastImportController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final FastImportService importService;
+    private final UserService userService;
+    private final UserAuthorizationService authorizationService;
+    private final ObjectMapper objectMapper;
+
+    public FastImportController(FastImportService importService, UserService userService,
+                                UserAuthorizationService authorizationService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.userService = userService;
+        this.authorizationService = authorizationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/user/{identifier}/import", consumes = {"text/csv", NDJSON})
+    @Operation(summary = "Historische Fasten importieren (CSV/NDJSON)",
+               description = "Liest den Request-Body zeilenweise: CSV `startAt,endAt,goalHours` (Header optional) oder NDJSON mit einem Objekt pro Zeile. "
+                       + "Ungültige Zeilen (goalHours 1-48, endAt >= startAt, keine Überschneidung) werden übersprungen und gemeldet. "
+                       + "Die Antwort ist NDJSON: ERROR je abgelehnter Zeile, PROGRESS je geschriebenem Batch, zum Schluss DONE oder FAILED. "
+                       + "Requires JWT authentication.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import gelaufen; Ergebnis in der letzten Zeile (DONE oder FAILED)",
+                    content = @Content(mediaType = NDJSON, schema = @Schema(implementation = FastImportEvent.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - User can only import their own sessions"),
+            @ApiResponse(responseCode = "404", description = "User nicht gefunden")
+    })
+    public void importByUser(@PathVariable String identifier, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        // Get authenticated user from security context
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+
+        // Check if authenticated user matches requested identifier
+        if (!authorizationService.userMatches(authentication.getName(), identifier)) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        Optional<User> user = userService.getUserByIdentifier(identifier);
+        if (user.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        FastImportService.Format format = request.getContentType().toLowerCase(Locale.ROOT).contains("csv")
+                ? FastImportService.Format.CSV : FastImportService.Format.NDJSON;
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ServletOutputStream out = response.getOutputStream();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        FastImportEvent result;
+        try {
+            result = importService.importSessions(user.get(), reader, format, event -> {
+                write(out, event);
+                if (event.getType() == FastImportEvent.Type.PROGRESS) {
+                    flush(out);
+                }
+            });
+        } catch (IllegalArgumentException | DataAccessException e) {
+            result = FastImportEvent.failed(e.getMessage());
+        }
+        write(out, result);
+        flush(out);
+    }
+
+    private void write(ServletOutputStream out, FastImportEvent event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(ServletOutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.larslab.fasting.controller;
+
+import com.larslab.fasting.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Public verification keys for access tokens, so other services can verify them locally.
+ * The document only changes with a restart (key rotation), so it is served with a public
+ * max-age and an ETag for conditional requests.
+ */
+@RestController
+public class JwksController {
+
+    private final String jwks;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing, @Value("${jwt.jwks.max-age-seconds:300}") long maxAgeSeconds) {
+        this.jwks = keyRing.jwksJson();
+        this.etag = "\"" + Integer.toHexString(jwks.hashCode()) + "\"";
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(cacheControl)
+            .eTag(etag)
+            .contentType(MediaType.parseMediaType("application/jwk-set+json"))
+            .body(jwks);
+    }
+}
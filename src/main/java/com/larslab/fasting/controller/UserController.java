@@ -52,7 +52,7 @@ public class UserController {
         try {
             User user = userService.loginOrCreateUser(request);
             
-            String accessToken = jwtService.generateAccessToken(user.getUsername());
+            String accessToken = jwtService.generateAccessToken(user.getUsername(), user.getTokenGeneration());
             // Persist a separate opaque refresh token (random UUIDs) hashed server-side
             String refreshRaw = refreshTokenService.createToken(
                 user,
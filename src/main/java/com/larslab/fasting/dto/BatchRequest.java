@@ -0,0 +1,74 @@
+package com.larslab.fasting.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Ordered operations of one user, executed in a single transaction")
+public class BatchRequest {
+
+    /** Upper bound per batch, checked by validation before the service opens its transaction. */
+    public static final int MAX_OPERATIONS = 50;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "Maximal " + MAX_OPERATIONS + " Operationen pro Batch")
+    @Valid
+    @Schema(description = "Operations in execution order", required = true)
+    private List<Operation> operations;
+
+    public BatchRequest() {}
+
+    public BatchRequest(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public List<Operation> getOperations() { return operations; }
+    public void setOperations(List<Operation> operations) { this.operations = operations; }
+
+    public enum Type { START, STOP, STATUS, PREFERENCES }
+
+    @Schema(description = "One queued client operation")
+    public static class Operation {
+
+        @Schema(description = "Client reference echoed in the result (e.g. the offline queue id)", example = "q-17")
+        private String clientId;
+
+        @NotNull(message = "Operation type is required")
+        @Schema(description = "START, STOP, STATUS or PREFERENCES", example = "START", required = true)
+        private Type type;
+
+        @Min(value = 1, message = "Ziel-Stunden müssen mindestens 1 sein")
+        @Max(value = 48, message = "Ziel-Stunden dürfen maximal 48 sein")
+        @Schema(description = "START: Ziel-Stunden", example = "16", defaultValue = "16")
+        private Integer goalHours;
+
+        @Valid
+        @Schema(description = "PREFERENCES: fields to update, same as PATCH /api/users/preferences")
+        private UpdatePreferencesRequest preferences;
+
+        public Operation() {}
+
+        public Operation(String clientId, Type type) {
+            this.clientId = clientId;
+            this.type = type;
+        }
+
+        public String getClientId() { return clientId; }
+        public void setClientId(String clientId) { this.clientId = clientId; }
+
+        public Type getType() { return type; }
+        public void setType(Type type) { this.type = type; }
+
+        public Integer getGoalHours() { return goalHours; }
+        public void setGoalHours(Integer goalHours) { this.goalHours = goalHours; }
+
+        public UpdatePreferencesRequest getPreferences() { return preferences; }
+        public void setPreferences(UpdatePreferencesRequest preferences) { this.preferences = preferences; }
+    }
+}
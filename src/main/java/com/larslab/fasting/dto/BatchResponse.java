@@ -0,0 +1,75 @@
+package com.larslab.fasting.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-operation results of a batch")
+public class BatchResponse {
+
+    @Schema(description = "true if all operations succeeded and were committed; otherwise nothing was applied")
+    private boolean committed;
+
+    @Schema(description = "One result per operation, in request order")
+    private List<Result> results;
+
+    public BatchResponse() {}
+
+    public BatchResponse(boolean committed, List<Result> results) {
+        this.committed = committed;
+        this.results = results;
+    }
+
+    public boolean isCommitted() { return committed; }
+    public void setCommitted(boolean committed) { this.committed = committed; }
+
+    public List<Result> getResults() { return results; }
+    public void setResults(List<Result> results) { this.results = results; }
+
+    @Schema(description = "Result of one operation")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+
+        @Schema(description = "clientId of the operation", example = "q-17")
+        private String clientId;
+
+        @Schema(description = "Operation type", example = "START")
+        private BatchRequest.Type type;
+
+        @Schema(description = "HTTP status the single request would have returned; 424 = not executed because an earlier operation failed",
+                example = "200")
+        private int status;
+
+        @Schema(description = "Response body of the operation (FastSession, FastStatusResponse or UserResponse)")
+        private Object body;
+
+        @Schema(description = "Error message for failed operations")
+        private String error;
+
+        public Result() {}
+
+        public Result(String clientId, BatchRequest.Type type, int status, Object body, String error) {
+            this.clientId = clientId;
+            this.type = type;
+            this.status = status;
+            this.body = body;
+            this.error = error;
+        }
+
+        public String getClientId() { return clientId; }
+        public void setClientId(String clientId) { this.clientId = clientId; }
+
+        public BatchRequest.Type getType() { return type; }
+        public void setType(BatchRequest.Type type) { this.type = type; }
+
+        public int getStatus() { return status; }
+        public void setStatus(int status) { this.status = status; }
+
+        public Object getBody() { return body; }
+        public void setBody(Object body) { this.body = body; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
@@ -0,0 +1,79 @@
+package com.larslab.fasting.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * One line of the NDJSON response of the fasting import: per-row errors as they occur,
+ * progress while the upload is read and checked, and a final summary. Only DONE carries
+ * {@code imported}; nothing is committed before it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Fortschritts-/Fehlerzeile des Imports (application/x-ndjson)")
+public class FastImportEvent {
+
+    public enum Type { ERROR, PROGRESS, DONE, FAILED }
+
+    @Schema(description = "ERROR (Zeile abgelehnt), PROGRESS, DONE (übernommen) oder FAILED (nichts übernommen)", example = "PROGRESS")
+    private Type type;
+
+    @Schema(description = "Zeilennummer in der Datei (ab 1, inkl. Header)", example = "42")
+    private Long line;
+
+    @Schema(description = "Bisher geprüfte und angenommene Zeilen, noch nicht gespeichert (PROGRESS)", example = "500")
+    private Long accepted;
+
+    @Schema(description = "Gespeicherte Zeilen (DONE)", example = "497")
+    private Long imported;
+
+    @Schema(description = "Bisher abgelehnte Zeilen", example = "3")
+    private Long rejected;
+
+    @Schema(description = "Fehlermeldung", example = "endAt liegt vor startAt")
+    private String message;
+
+    public FastImportEvent() {}
+
+    private FastImportEvent(Type type, Long line, Long accepted, Long imported, Long rejected, String message) {
+        this.type = type;
+        this.line = line;
+        this.accepted = accepted;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.message = message;
+    }
+
+    public static FastImportEvent error(long line, String message) {
+        return new FastImportEvent(Type.ERROR, line, null, null, null, message);
+    }
+
+    public static FastImportEvent progress(long line, long accepted, long rejected) {
+        return new FastImportEvent(Type.PROGRESS, line, accepted, null, rejected, null);
+    }
+
+    public static FastImportEvent done(long line, long imported, long rejected) {
+        return new FastImportEvent(Type.DONE, line, null, imported, rejected, null);
+    }
+
+    public static FastImportEvent failed(String message) {
+        return new FastImportEvent(Type.FAILED, null, null, 0L, null, message);
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getLine() { return line; }
+    public void setLine(Long line) { this.line = line; }
+
+    public Long getAccepted() { return accepted; }
+    public void setAccepted(Long accepted) { this.accepted = accepted; }
+
+    public Long getImported() { return imported; }
+    public void setImported(Long imported) { this.imported = imported; }
+
+    public Long getRejected() { return rejected; }
+    public void setRejected(Long rejected) { this.rejected = rejected; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
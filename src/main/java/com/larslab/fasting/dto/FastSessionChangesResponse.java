@@ -0,0 +1,43 @@
+package com.larslab.fasting.dto;
+
+import com.larslab.fasting.model.FastSession;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Änderungen an den Fasten-Sessions eines Users seit einer Version (Delta-Sync)")
+public class FastSessionChangesResponse {
+
+    @Schema(description = "Höchste enthaltene Version; beim nächsten Sync als since übergeben", example = "42")
+    private long version;
+
+    @Schema(description = "Seit since neu angelegte Sessions (in Versionsreihenfolge)")
+    private List<FastSession> inserted;
+
+    @Schema(description = "Vor since angelegte, seitdem geänderte Sessions (in Versionsreihenfolge)")
+    private List<FastSession> updated;
+
+    @Schema(description = "IDs der seit since gelöschten Sessions", example = "[17, 23]")
+    private List<Long> deleted;
+
+    public FastSessionChangesResponse() {}
+
+    public FastSessionChangesResponse(long version, List<FastSession> inserted, List<FastSession> updated, List<Long> deleted) {
+        this.version = version;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public List<FastSession> getInserted() { return inserted; }
+    public void setInserted(List<FastSession> inserted) { this.inserted = inserted; }
+
+    public List<FastSession> getUpdated() { return updated; }
+    public void setUpdated(List<FastSession> updated) { this.updated = updated; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+}
@@ -0,0 +1,102 @@
+package com.larslab.fasting.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Periodically runs {@code EXPLAIN (ANALYZE, BUFFERS)} for a few recorded slow SELECTs
+ * and attaches the plan to the entry.
+ *
+ * Runs on the undecorated pool so its own statements are not recorded, only on
+ * PostgreSQL, inside a read-only transaction that is always rolled back and guarded
+ * by a local {@code statement_timeout}.
+ */
+public class ExplainSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExplainSampler.class);
+
+    private final DataSource dataSource;
+    private final SlowQueryRecorder recorder;
+    private final int sampleSize;
+    private final long timeoutMs;
+    private final Duration maxPlanAge;
+    private Boolean postgres;
+
+    public ExplainSampler(DataSource dataSource, SlowQueryRecorder recorder, int sampleSize, long timeoutMs,
+                          Duration maxPlanAge) {
+        this.dataSource = dataSource;
+        this.recorder = recorder;
+        this.sampleSize = sampleSize;
+        this.timeoutMs = timeoutMs;
+        this.maxPlanAge = maxPlanAge;
+    }
+
+    @Scheduled(initialDelayString = "${slow.query.explain.interval.ms:300000}",
+               fixedDelayString = "${slow.query.explain.interval.ms:300000}")
+    public void sample() {
+        var candidates = recorder.explainCandidates(Instant.now().minus(maxPlanAge), sampleSize);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isPostgres(connection)) {
+                return;
+            }
+            for (SlowQueryRecorder.Entry entry : candidates) {
+                entry.plan(explain(connection, entry));
+            }
+        } catch (SQLException e) {
+            log.warn("EXPLAIN sampling skipped: {}", e.getMessage());
+        }
+    }
+
+    private String explain(Connection connection, SlowQueryRecorder.Entry entry) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET TRANSACTION READ ONLY");
+                settings.execute("SET LOCAL statement_timeout = " + timeoutMs);
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + entry.sql)) {
+                Object[] parameters = entry.lastParameters();
+                for (int i = 0; i < parameters.length; i++) {
+                    explain.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            // keep sampling the remaining entries; the error is the "plan" for this one
+            return "EXPLAIN failed: " + e.getMessage();
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            if (!postgres) {
+                log.info("EXPLAIN sampling disabled: database is not PostgreSQL");
+            }
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,55 @@
+package com.larslab.fasting.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in slow-query capture ({@code slow.query.enabled=true}): wraps the DataSource in a
+ * {@link SlowQueryDataSource}, samples plans with {@link ExplainSampler} and publishes
+ * both through {@link SlowQueryEndpoint}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "slow.query.enabled", havingValue = "true")
+public class SlowQueryConfiguration {
+
+    @Bean
+    SlowQueryRecorder slowQueryRecorder(@Value("${slow.query.threshold.ms:200}") long thresholdMs,
+                                        @Value("${slow.query.max.entries:200}") int maxEntries) {
+        return new SlowQueryRecorder(thresholdMs, maxEntries);
+    }
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "slow.query.explain.enabled", havingValue = "true", matchIfMissing = true)
+    ExplainSampler explainSampler(DataSource dataSource, SlowQueryRecorder recorder,
+                                  @Value("${slow.query.explain.sample.size:5}") int sampleSize,
+                                  @Value("${slow.query.explain.timeout.ms:5000}") long timeoutMs,
+                                  @Value("${slow.query.explain.max.age.minutes:60}") long maxAgeMinutes) {
+        DataSource raw = dataSource instanceof SlowQueryDataSource proxied ? proxied.getTargetDataSource() : dataSource;
+        return new ExplainSampler(raw, recorder, sampleSize, timeoutMs, Duration.ofMinutes(maxAgeMinutes));
+    }
+
+    @Bean
+    SlowQueryEndpoint slowQueryEndpoint(SlowQueryRecorder recorder) {
+        return new SlowQueryEndpoint(recorder);
+    }
+}
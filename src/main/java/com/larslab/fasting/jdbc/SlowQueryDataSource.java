@@ -0,0 +1,125 @@
+package com.larslab.fasting.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times statement executions and hands slow ones to
+ * {@link SlowQueryRecorder}. Connections and statements are JDK proxies, so the pool
+ * underneath ({@code unwrap}, metrics, health) is untouched.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryDataSource(DataSource target, SlowQueryRecorder recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxyConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxyConnection(super.getConnection(username, password));
+    }
+
+    private Connection proxyConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default: break;
+            }
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement/prepareCall carry the SQL; createStatement passes it to execute*
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] parameters = new Object[0];
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "clearParameters": parameters = new Object[0]; break;
+                default: break;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            }
+            if (!name.startsWith("execute")) {
+                return SlowQueryDataSource.invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            long start = System.nanoTime();
+            try {
+                return SlowQueryDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (sql != null && recorder.isSlow(elapsed)) {
+                    recorder.record(sql, parameters.clone(), elapsed);
+                }
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index < 1 || index > 1000) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, index);
+            }
+            parameters[index - 1] = value;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.larslab.fasting.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: recorded slow statements with parameter types and the
+ * latest sampled plan. Not exposed unless added to
+ * {@code management.endpoints.web.exposure.include}; requires the ADMIN authority granted by the
+ * Swagger admin login.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryEndpoint(SlowQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowQueryRecorder.SlowQuery> slowQueries() {
+        return recorder.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
@@ -0,0 +1,121 @@
+package com.larslab.fasting.jdbc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates statements slower than {@code slow.query.threshold.ms}, keyed by SQL text.
+ *
+ * Only the parameter <em>types</em> are published; the bound values of the latest slow
+ * execution are kept in memory solely so {@link ExplainSampler} can re-run the query.
+ */
+public class SlowQueryRecorder {
+
+    private final long thresholdNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SlowQueryRecorder(long thresholdMs, int maxEntries) {
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    void record(String sql, Object[] parameters, long elapsedNanos) {
+        Entry entry = entries.get(sql);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+            entry = entries.computeIfAbsent(sql, Entry::new);
+        }
+        entry.record(parameters, elapsedNanos);
+    }
+
+    /** Slowest first. */
+    public List<SlowQuery> snapshot() {
+        List<SlowQuery> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            result.add(entry.toView());
+        }
+        result.sort(Comparator.comparingDouble(SlowQuery::maxMs).reversed());
+        return result;
+    }
+
+    /** Candidates for EXPLAIN: SELECTs whose plan is missing or older than {@code staleBefore}, slowest first. */
+    List<Entry> explainCandidates(Instant staleBefore, int limit) {
+        return entries.values().stream()
+                .filter(Entry::isExplainable)
+                .filter(e -> e.plannedAt == null || e.plannedAt.isBefore(staleBefore))
+                .sorted(Comparator.comparingLong((Entry e) -> e.maxNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    static final class Entry {
+        final String sql;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private Object[] lastParameters = new Object[0];
+        private Instant lastSeen;
+        private volatile String plan;
+        private volatile Instant plannedAt;
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+
+        synchronized void record(Object[] parameters, long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastParameters = parameters;
+            lastSeen = Instant.now();
+        }
+
+        synchronized Object[] lastParameters() {
+            return lastParameters.clone();
+        }
+
+        void plan(String plan) {
+            this.plan = plan;
+            this.plannedAt = Instant.now();
+        }
+
+        /** EXPLAIN ANALYZE executes the statement, so only plain reads qualify. */
+        boolean isExplainable() {
+            String normalized = sql.stripLeading().toLowerCase();
+            return normalized.startsWith("select") && !normalized.contains(" for update") && !normalized.contains(" for share");
+        }
+
+        synchronized SlowQuery toView() {
+            List<String> types = new ArrayList<>(lastParameters.length);
+            for (Object parameter : lastParameters) {
+                types.add(parameter == null ? "null" : parameter.getClass().getSimpleName());
+            }
+            return new SlowQuery(sql, count, round(maxNanos), round(totalNanos / Math.max(count, 1)),
+                    types, lastSeen, plan, plannedAt);
+        }
+
+        private static double round(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+
+    /** Published view of one slow statement. */
+    public record SlowQuery(String sql, long count, double maxMs, double avgMs, List<String> parameterTypes,
+                            Instant lastSeen, String plan, Instant plannedAt) {
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -14,12 +15,21 @@ import java.util.UUID;
 /**
  * Ensures every request has a correlation ID for log tracing.
  * Header: X-Request-ID (incoming respected, otherwise generated)
+ *
+ * Generated ids are time-ordered ULIDs by default ({@code logging.correlation-id.format=ulid});
+ * {@code uuid} restores random UUIDs.
  */
 @Component
 public class CorrelationIdFilter extends OncePerRequestFilter {
     public static final String HEADER_NAME = "X-Request-ID";
     public static final String MDC_KEY = "correlationId";
 
+    private final boolean uuid;
+
+    public CorrelationIdFilter(@Value("${logging.correlation-id.format:ulid}") String format) {
+        this.uuid = "uuid".equalsIgnoreCase(format);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -34,9 +44,9 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
     }
 
     private String extractOrGenerate(String headerVal) {
-        if (headerVal != null && headerVal.matches("[A-Za-z0-9-]{8,128}")) {
+        if (headerVal != null && RequestIds.isValid(headerVal)) {
             return headerVal;
         }
-        return UUID.randomUUID().toString();
+        return uuid ? UUID.randomUUID().toString() : RequestIds.next();
     }
 }
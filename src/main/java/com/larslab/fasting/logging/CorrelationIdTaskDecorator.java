@@ -0,0 +1,35 @@
+package com.larslab.fasting.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the correlation id of the submitting request into tasks on Spring's task
+ * executor. Only that one value is captured and restored, not a copy of the whole MDC.
+ * Picked up by the auto-configured {@code applicationTaskExecutor}.
+ */
+@Component
+public class CorrelationIdTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String cid = MDC.get(CorrelationIdFilter.MDC_KEY);
+        if (cid == null) {
+            return runnable;
+        }
+        return () -> {
+            String previous = MDC.get(CorrelationIdFilter.MDC_KEY);
+            MDC.put(CorrelationIdFilter.MDC_KEY, cid);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.put(CorrelationIdFilter.MDC_KEY, previous);
+                } else {
+                    MDC.remove(CorrelationIdFilter.MDC_KEY);
+                }
+            }
+        };
+    }
+}
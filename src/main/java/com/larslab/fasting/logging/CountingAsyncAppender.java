@@ -0,0 +1,54 @@
+package com.larslab.fasting.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded async appender (array-backed ring buffer) that never stalls the calling thread
+ * on a slow sink when {@code neverBlock} is set, and counts what it drops.
+ *
+ * Once the remaining capacity falls below {@code discardingThreshold}, events at or below
+ * {@code discardLevel} (default INFO) are discarded first. With {@code neverBlock} a
+ * completely full buffer drops any event instead of blocking. Both counts are exported by
+ * {@link LogbackAsyncMetrics}.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private Level discardLevel = Level.INFO;
+
+    public void setDiscardLevel(String level) {
+        this.discardLevel = Level.toLevel(level, Level.INFO);
+    }
+
+    public String getDiscardLevel() {
+        return discardLevel.toString();
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        if (event.getLevel().toInt() <= discardLevel.toInt()) {
+            discarded.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // offer() result is not visible from here; a full buffer right before the put is a
+        // close enough approximation for the overflow counter
+        boolean discardable = event.getLevel().toInt() <= discardLevel.toInt();
+        if (isNeverBlock() && getRemainingCapacity() == 0 && !(discardable && isQueueBelowDiscardingThreshold())) {
+            overflowed.increment();
+        }
+        super.append(event);
+    }
+
+    public long getDiscardedCount() { return discarded.sum(); }
+    public long getOverflowedCount() { return overflowed.sum(); }
+}
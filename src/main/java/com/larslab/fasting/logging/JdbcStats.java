@@ -0,0 +1,29 @@
+package com.larslab.fasting.logging;
+
+/**
+ * Per-thread JDBC counters fed by {@link JdbcTimingSessionListener}.
+ * Values only ever grow; callers take a snapshot before a unit of work and
+ * subtract afterwards, so nested measurements (request filter, tests) never
+ * reset each other.
+ */
+public final class JdbcStats {
+
+    private static final ThreadLocal<JdbcStats> CURRENT = ThreadLocal.withInitial(JdbcStats::new);
+
+    private long statements;
+    private long nanos;
+
+    private JdbcStats() {}
+
+    public static JdbcStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    public long statements() { return statements; }
+    public long nanos() { return nanos; }
+}
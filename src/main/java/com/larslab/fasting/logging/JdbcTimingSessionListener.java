@@ -0,0 +1,39 @@
+package com.larslab.fasting.logging;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener that times every JDBC statement and batch execution
+ * and adds it to the calling thread's {@link JdbcStats}.
+ * Registered for all sessions via {@code hibernate.session.events.auto}.
+ */
+public class JdbcTimingSessionListener extends BaseSessionEventListener {
+
+    private long executeStart = -1;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordExecution();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordExecution();
+    }
+
+    private void recordExecution() {
+        if (executeStart < 0) return;
+        JdbcStats.current().record(System.nanoTime() - executeStart);
+        executeStart = -1;
+    }
+}
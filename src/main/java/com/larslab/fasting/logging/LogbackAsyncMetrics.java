@@ -0,0 +1,50 @@
+package com.larslab.fasting.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Exports drop counters and buffer depth of every {@link CountingAsyncAppender} attached
+ * to the root logger (only configured in the prod logging profile).
+ */
+@Component
+public class LogbackAsyncMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof CountingAsyncAppender appender) {
+                FunctionCounter.builder("logback.async.dropped", appender, CountingAsyncAppender::getDiscardedCount)
+                        .description("Log events dropped by the async appender")
+                        .tag("appender", appender.getName())
+                        .tag("reason", "discard_threshold")
+                        .register(registry);
+                FunctionCounter.builder("logback.async.dropped", appender, CountingAsyncAppender::getOverflowedCount)
+                        .description("Log events dropped by the async appender")
+                        .tag("appender", appender.getName())
+                        .tag("reason", "buffer_full")
+                        .register(registry);
+                Gauge.builder("logback.async.queued", appender, CountingAsyncAppender::getNumberOfElementsInQueue)
+                        .description("Log events waiting in the async appender buffer")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
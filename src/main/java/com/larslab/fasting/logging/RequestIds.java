@@ -0,0 +1,58 @@
+package com.larslab.fasting.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Correlation ids without regex or {@code SecureRandom}.
+ *
+ * {@link #next()} returns a ULID-shaped id: 48-bit millisecond timestamp followed by 80
+ * random bits from {@link ThreadLocalRandom}, Crockford base32, 26 characters. Ids sort by
+ * creation time; they are for tracing, not secrets.
+ */
+final class RequestIds {
+
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    static final int LENGTH = 26;
+
+    private RequestIds() {}
+
+    static String next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static String next(long millis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[LENGTH];
+        // 10 chars * 5 bits = 50 bits of timestamp (top 2 always 0 for 48-bit millis)
+        for (int i = 9; i >= 0; i--) {
+            id[i] = CROCKFORD[(int) (millis & 31)];
+            millis >>>= 5;
+        }
+        long high = random.nextLong(); // 40 bits used
+        long low = random.nextLong();  // 40 bits used
+        for (int i = 17; i >= 10; i--) {
+            id[i] = CROCKFORD[(int) (high & 31)];
+            high >>>= 5;
+        }
+        for (int i = 25; i >= 18; i--) {
+            id[i] = CROCKFORD[(int) (low & 31)];
+            low >>>= 5;
+        }
+        return new String(id);
+    }
+
+    /** Same as {@code value.matches("[A-Za-z0-9-]{8,128}")}, without compiling a pattern. */
+    static boolean isValid(String value) {
+        int length = value.length();
+        if (length < 8 || length > 128) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.larslab.fasting.logging;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Timing marks collected for a single request. Created by {@link RequestTimingFilter}
+ * and stored as a request attribute so later stages (security chain, body advice)
+ * can add their marks without any lookup beyond {@link #of(ServletRequest)}.
+ */
+public final class RequestTiming {
+
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    final long startNanos;
+    final long jdbcStatementsAtStart;
+    final long jdbcNanosAtStart;
+    long securityExitNanos = -1;
+    long serializationStartNanos = -1;
+    long lastWriteNanos = -1;
+    long responseBytes;
+    long jdbcStatements;
+    long jdbcNanos;
+
+    RequestTiming(long startNanos, JdbcStats jdbc) {
+        this.startNanos = startNanos;
+        this.jdbcStatementsAtStart = jdbc.statements();
+        this.jdbcNanosAtStart = jdbc.nanos();
+    }
+
+    public static RequestTiming of(ServletRequest request) {
+        Object value = request.getAttribute(ATTRIBUTE);
+        return value instanceof RequestTiming timing ? timing : null;
+    }
+
+    /**
+     * Filter placed last in the Spring Security chain; marks the moment the
+     * request leaves the security filters.
+     */
+    public static Filter securityExitMarker() {
+        return (request, response, chain) -> {
+            RequestTiming timing = of(request);
+            if (timing != null && timing.securityExitNanos < 0) {
+                timing.securityExitNanos = System.nanoTime();
+            }
+            chain.doFilter(request, response);
+        };
+    }
+
+    /** Captures JDBC work done on the request thread since the timing started. */
+    void captureJdbc(JdbcStats jdbc) {
+        jdbcStatements = jdbc.statements() - jdbcStatementsAtStart;
+        jdbcNanos = jdbc.nanos() - jdbcNanosAtStart;
+    }
+
+    void markSerializationStart() {
+        serializationStartNanos = System.nanoTime();
+    }
+
+    void recordWrite(int bytes) {
+        responseBytes += bytes;
+        lastWriteNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,249 @@
+package com.larslab.fasting.logging;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import com.larslab.fasting.startup.FirstMinuteLatency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Outermost filter measuring a per-request latency breakdown:
+ * total, security filters, JDBC (time + statement count), serialization and response size.
+ *
+ * One JSON line per logged request goes to the {@code access} logger through the regular
+ * logstash encoder. Slow and 5xx requests are always candidates, everything else is sampled
+ * by {@code access.log.sample.rate}; the output is capped at {@code access.log.max.per.second}.
+ * Requests issuing more than {@code access.log.statements.threshold} JDBC statements are
+ * always candidates as well, so N+1 patterns show up in the log with their route.
+ *
+ * Independent of sampling, every request records its statement count in the
+ * {@code http.server.jdbc.statements} distribution summary (tags: method, route), and requests
+ * in the first minute after readiness feed {@link FirstMinuteLatency}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxPerSecond;
+    private final long slowNanos;
+    private final long statementsThreshold;
+    private final MeterRegistry meterRegistry;
+    private final FirstMinuteLatency firstMinute;
+
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    public RequestTimingFilter(
+            @Value("${access.log.enabled:true}") boolean enabled,
+            @Value("${access.log.sample.rate:0.05}") double sampleRate,
+            @Value("${access.log.max.per.second:50}") int maxPerSecond,
+            @Value("${access.log.slow.ms:1000}") long slowMs,
+            @Value("${access.log.statements.threshold:20}") long statementsThreshold,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<FirstMinuteLatency> firstMinute) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+        this.slowNanos = slowMs * 1_000_000L;
+        this.statementsThreshold = statementsThreshold;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.firstMinute = firstMinute.getIfAvailable();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = new RequestTiming(System.nanoTime(), JdbcStats.current());
+        request.setAttribute(RequestTiming.ATTRIBUTE, timing);
+        try {
+            filterChain.doFilter(request, new CountingResponse(response, timing));
+        } finally {
+            timing.captureJdbc(JdbcStats.current());
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, timing));
+            } else {
+                complete(request, response, timing);
+            }
+        }
+    }
+
+    private void complete(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        long end = System.nanoTime();
+        long total = end - timing.startNanos;
+        int status = response.getStatus();
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        recordStatements(request, route, timing);
+        if (firstMinute != null) {
+            firstMinute.record(total);
+        }
+        boolean candidate = total >= slowNanos || status >= 500 || timing.jdbcStatements > statementsThreshold
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!candidate || !accessLog.isInfoEnabled() || !tryAcquire()) {
+            return;
+        }
+        long security = timing.securityExitNanos > 0 ? timing.securityExitNanos - timing.startNanos : -1;
+        long serialization = timing.serializationStartNanos > 0 && timing.lastWriteNanos > timing.serializationStartNanos
+                ? timing.lastWriteNanos - timing.serializationStartNanos : -1;
+        accessLog.info("access",
+                kv("method", request.getMethod()),
+                kv("route", route != null ? route : request.getRequestURI()),
+                kv("status", status),
+                kv("totalMs", millis(total)),
+                kv("securityMs", millis(security)),
+                kv("jdbcMs", millis(timing.jdbcNanos)),
+                kv("jdbcStatements", timing.jdbcStatements),
+                kv("serializationMs", millis(serialization)),
+                kv("responseBytes", timing.responseBytes),
+                kv(CorrelationIdFilter.MDC_KEY, response.getHeader(CorrelationIdFilter.HEADER_NAME)));
+    }
+
+    private void recordStatements(HttpServletRequest request, Object route, RequestTiming timing) {
+        if (meterRegistry == null) {
+            return;
+        }
+        // unmatched requests share one tag value so scanners cannot blow up the route cardinality
+        DistributionSummary.builder("http.server.jdbc.statements")
+                .description("JDBC statements executed on the request thread")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("route", route != null ? route.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(timing.jdbcStatements);
+    }
+
+    private boolean tryAcquire() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final RequestTiming timing;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+            this.request = request;
+            this.response = response;
+            this.timing = timing;
+        }
+
+        @Override public void onComplete(AsyncEvent event) { complete(request, response, timing); }
+        @Override public void onTimeout(AsyncEvent event) { }
+        @Override public void onError(AsyncEvent event) { }
+        @Override public void onStartAsync(AsyncEvent event) { event.getAsyncContext().addListener(this); }
+    }
+
+    /**
+     * Counts body bytes written through the output stream or the writer and remembers when the
+     * last write happened. Writer output is counted as encoded UTF-8 bytes when that is the
+     * response charset, otherwise one byte per char.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming timing;
+        private ServletOutputStream counting;
+        private PrintWriter countingWriter;
+
+        CountingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (counting == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                counting = new ServletOutputStream() {
+                    @Override public void write(int b) throws IOException {
+                        delegate.write(b);
+                        timing.recordWrite(1);
+                    }
+                    @Override public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        timing.recordWrite(len);
+                    }
+                    @Override public void flush() throws IOException { delegate.flush(); }
+                    @Override public void close() throws IOException { delegate.close(); }
+                    @Override public boolean isReady() { return delegate.isReady(); }
+                    @Override public void setWriteListener(WriteListener listener) { delegate.setWriteListener(listener); }
+                };
+            }
+            return counting;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (countingWriter == null) {
+                PrintWriter delegate = super.getWriter();
+                boolean utf8 = StandardCharsets.UTF_8.name().equalsIgnoreCase(getCharacterEncoding());
+                // PrintWriter over a plain Writer adds no buffer, so nothing is held back from the delegate
+                countingWriter = new PrintWriter(new Writer() {
+                    @Override public void write(char[] chars, int off, int len) {
+                        delegate.write(chars, off, len);
+                        timing.recordWrite(utf8 ? utf8Length(CharBuffer.wrap(chars, off, len)) : len);
+                    }
+                    @Override public void write(String text, int off, int len) {
+                        delegate.write(text, off, len);
+                        timing.recordWrite(utf8 ? utf8Length(CharBuffer.wrap(text, off, off + len)) : len);
+                    }
+                    @Override public void flush() { delegate.flush(); }
+                    @Override public void close() { delegate.close(); }
+                });
+            }
+            return countingWriter;
+        }
+
+        private static int utf8Length(CharSequence chars) {
+            int bytes = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                // a surrogate pair is 4 bytes, 2 per half
+                bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+            }
+            return bytes;
+        }
+    }
+}
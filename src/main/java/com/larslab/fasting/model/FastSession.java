@@ -1,5 +1,6 @@
 package com.larslab.fasting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import java.time.*;
@@ -26,6 +27,15 @@ public class FastSession {
     @Schema(description = "Ziel-Stunden für die Fasten-Session", example = "16", minimum = "1", maximum = "48")
     private Integer goalHours = 16;
 
+    // change versions for delta sync, assigned by database trigger (V8); not an optimistic lock
+    @Column(name = "version", insertable = false, updatable = false)
+    @Schema(hidden = true)
+    private Long version;
+
+    @Column(name = "created_version", insertable = false, updatable = false)
+    @Schema(hidden = true)
+    private Long createdVersion;
+
     public FastSession() {}
     public FastSession(Instant startAt) { 
         this.startAt = startAt; 
@@ -60,6 +70,12 @@ public class FastSession {
         this.goalHours = goalHours != null ? goalHours : 16; 
     }
 
+    /** Change version of the last write; only current on instances read after that write. */
+    @JsonIgnore
+    public Long getVersion() { return version; }
+    @JsonIgnore
+    public Long getCreatedVersion() { return createdVersion; }
+
     @Transient
     @Schema(description = "Berechnete Dauer der Fasten-Session", example = "PT18H30M")
     public Duration getDuration() {
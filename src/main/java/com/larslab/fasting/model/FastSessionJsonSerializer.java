@@ -0,0 +1,120 @@
+package com.larslab.fasting.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Hand-written serializer for {@link FastSession}, replacing the reflective bean serializer on
+ * history responses. Produces the same document (id, user, startAt, endAt, goalHours,
+ * duration, ISO-8601 strings unless the mapper is configured for timestamps) with:
+ * <ul>
+ *   <li>pre-encoded field names and direct getter calls instead of reflective property access;</li>
+ *   <li>one clock read per response: running sessions' {@code duration} is computed against
+ *       the same instant instead of calling {@code Instant.now()} per row;</li>
+ *   <li>the owning user serialized once per response into a token buffer and replayed for every
+ *       row that references the same instance (all rows of a per-user history).</li>
+ * </ul>
+ * State is kept in per-call serializer attributes, so the serializer itself is stateless.
+ */
+@JsonComponent
+public class FastSessionJsonSerializer extends StdSerializer<FastSession> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USER = new SerializedString("user");
+    private static final SerializableString START_AT = new SerializedString("startAt");
+    private static final SerializableString END_AT = new SerializedString("endAt");
+    private static final SerializableString GOAL_HOURS = new SerializedString("goalHours");
+    private static final SerializableString DURATION = new SerializedString("duration");
+
+    private static final Object NOW = FastSessionJsonSerializer.class.getName() + ".now";
+    private static final Object USER_CACHE = FastSessionJsonSerializer.class.getName() + ".user";
+
+    private record CachedUser(User user, TokenBuffer json) {}
+
+    public FastSessionJsonSerializer() {
+        super(FastSession.class);
+    }
+
+    @Override
+    public void serialize(FastSession session, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(session);
+
+        gen.writeFieldName(ID);
+        if (session.getId() != null) {
+            gen.writeNumber(session.getId());
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeFieldName(USER);
+        writeUser(session.getUser(), gen, provider);
+
+        gen.writeFieldName(START_AT);
+        writeInstant(session.getStartAt(), gen, provider);
+        gen.writeFieldName(END_AT);
+        writeInstant(session.getEndAt(), gen, provider);
+
+        gen.writeFieldName(GOAL_HOURS);
+        gen.writeNumber(session.getGoalHours());
+
+        gen.writeFieldName(DURATION);
+        Instant start = session.getStartAt();
+        if (start == null) {
+            gen.writeNull();
+        } else {
+            Instant end = session.getEndAt() != null ? session.getEndAt() : now(provider);
+            Duration duration = Duration.between(start, end);
+            if (provider.isEnabled(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)) {
+                provider.defaultSerializeValue(duration, gen);
+            } else {
+                gen.writeString(duration.toString());
+            }
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static void writeUser(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (user == null) {
+            gen.writeNull();
+            return;
+        }
+        CachedUser cached = provider.getAttribute(USER_CACHE) instanceof CachedUser c ? c : null;
+        if (cached == null || cached.user() != user) {
+            TokenBuffer buffer = new TokenBuffer(gen.getCodec(), false);
+            provider.defaultSerializeValue(user, buffer);
+            cached = new CachedUser(user, buffer);
+            provider.setAttribute(USER_CACHE, cached);
+        }
+        cached.json().serialize(gen);
+    }
+
+    private static void writeInstant(Instant instant, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (instant == null) {
+            gen.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(instant, gen);
+        } else {
+            gen.writeString(instant.toString()); // same text as ISO_INSTANT used by InstantSerializer
+        }
+    }
+
+    private static Instant now(SerializerProvider provider) {
+        if (provider.getAttribute(NOW) instanceof Instant now) {
+            return now;
+        }
+        Instant now = Instant.now();
+        provider.setAttribute(NOW, now);
+        return now;
+    }
+}
@@ -2,6 +2,7 @@ package com.larslab.fasting.model;
 
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_token", indexes = {
@@ -18,9 +19,9 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    // Store only a hash of the token for security
-    @Column(nullable = false, unique = true, length = 128)
-    private String tokenHash;
+    // Store only the SHA-256 of the token for security (raw 32 bytes)
+    @Column(nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private Instant expiresAt;
@@ -31,15 +32,23 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked = false;
 
-    @Column
-    private String userAgentHash; // optional binding to UA
+    @Column(length = 32)
+    private byte[] userAgentHash; // optional binding to UA
 
-    @Column
-    private String ipHash; // optional binding to IP prefix
+    @Column(length = 32)
+    private byte[] ipHash; // optional binding to IP prefix
+
+    // shared by all tokens of one login; rotation keeps it, reuse detection revokes it as a whole
+    @Column(nullable = false)
+    private UUID familyId = UUID.randomUUID();
+
+    // owner's token generation at issue time; a newer generation on the user invalidates the token
+    @Column(nullable = false)
+    private int generation;
 
     public RefreshToken() {}
 
-    public RefreshToken(User user, String tokenHash, Instant expiresAt, String userAgentHash, String ipHash) {
+    public RefreshToken(User user, byte[] tokenHash, Instant expiresAt, byte[] userAgentHash, byte[] ipHash) {
         this.user = user;
         this.tokenHash = tokenHash;
         this.expiresAt = expiresAt;
@@ -50,16 +59,20 @@ public class RefreshToken {
     public Long getId() { return id; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
-    public String getTokenHash() { return tokenHash; }
-    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
     public Instant getExpiresAt() { return expiresAt; }
     public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public boolean isRevoked() { return revoked; }
     public void setRevoked(boolean revoked) { this.revoked = revoked; }
-    public String getUserAgentHash() { return userAgentHash; }
-    public void setUserAgentHash(String userAgentHash) { this.userAgentHash = userAgentHash; }
-    public String getIpHash() { return ipHash; }
-    public void setIpHash(String ipHash) { this.ipHash = ipHash; }
+    public byte[] getUserAgentHash() { return userAgentHash; }
+    public void setUserAgentHash(byte[] userAgentHash) { this.userAgentHash = userAgentHash; }
+    public byte[] getIpHash() { return ipHash; }
+    public void setIpHash(byte[] ipHash) { this.ipHash = ipHash; }
+    public UUID getFamilyId() { return familyId; }
+    public void setFamilyId(UUID familyId) { this.familyId = familyId; }
+    public int getGeneration() { return generation; }
+    public void setGeneration(int generation) { this.generation = generation; }
 }
@@ -1,5 +1,6 @@
 package com.larslab.fasting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import java.time.Instant;
@@ -28,6 +29,14 @@ public class User {
     @Schema(description = "Last login timestamp")
     private Instant lastLoginAt;
     
+    // bumped by "log out everywhere"; access and refresh tokens of older generations are rejected.
+    // Only UserRepository.incrementTokenGeneration writes it: saving a User loaded before the
+    // bump must not put the old generation back.
+    @Column(nullable = false, updatable = false)
+    @JsonIgnore
+    @Schema(hidden = true)
+    private int tokenGeneration;
+    
     @Embedded
     @Schema(description = "User preferences")
     private UserPreferences preferences;
@@ -60,6 +69,9 @@ public class User {
     public Instant getLastLoginAt() { return lastLoginAt; }
     public void setLastLoginAt(Instant lastLoginAt) { this.lastLoginAt = lastLoginAt; }
     
+    public int getTokenGeneration() { return tokenGeneration; }
+    public void setTokenGeneration(int tokenGeneration) { this.tokenGeneration = tokenGeneration; }
+    
     public UserPreferences getPreferences() { return preferences; }
     public void setPreferences(UserPreferences preferences) { this.preferences = preferences; }
     
@@ -3,6 +3,8 @@ package com.larslab.fasting.repo;
 import com.larslab.fasting.model.FastSession;
 import com.larslab.fasting.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,20 @@ public interface FastRepository extends JpaRepository<FastSession, Long> {
     Optional<FastSession> findFirstByUserAndEndAtIsNullOrderByStartAtDesc(User user);
     
     List<FastSession> findByUserOrderByStartAtDesc(User user);
+
+    /** Sessions inserted or updated after {@code version}; range scan on idx_fast_session_user_version. */
+    List<FastSession> findByUserAndVersionGreaterThanOrderByVersionAsc(User user, Long version);
+
+    /** Sessions deleted after {@code since}; range scan on the tombstone primary key (user_id, version). */
+    @Query(value = """
+            SELECT session_id AS "sessionId", version AS "version"
+            FROM fast_session_tombstone
+            WHERE user_id = :userId AND version > :since
+            ORDER BY version""", nativeQuery = true)
+    List<Tombstone> findTombstones(@Param("userId") Long userId, @Param("since") long since);
+
+    interface Tombstone {
+        Long getSessionId();
+        Long getVersion();
+    }
 }
@@ -3,11 +3,112 @@ package com.larslab.fasting.repo;
 import com.larslab.fasting.model.RefreshToken;
 import com.larslab.fasting.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
     long deleteByUserAndExpiresAtBefore(User user, Instant cutoff);
+
+    /**
+     * PostgreSQL rotation in a single statement: revokes the presented token only if it is
+     * still active, belongs to the owner's current token generation and its UA/IP binding
+     * matches (only checked when provided), inserts the successor in the same family and
+     * returns the owner. No row means nothing was rotated.
+     */
+    @Query(value = """
+            WITH old AS (
+              UPDATE refresh_token SET revoked = true
+              WHERE token_hash = :oldHash AND NOT revoked AND expires_at > :now
+                AND generation = (SELECT u.token_generation FROM users u WHERE u.id = refresh_token.user_id)
+                AND (NOT :uaCheck OR user_agent_hash IS NULL OR user_agent_hash = :uaHash)
+                AND (NOT :ipCheck OR ip_hash IS NULL OR ip_hash = :ipHash)
+              RETURNING user_id, family_id, generation
+            ), successor AS (
+              INSERT INTO refresh_token (user_id, family_id, generation, token_hash, expires_at, created_at, revoked, user_agent_hash, ip_hash)
+              SELECT user_id, family_id, generation, :newHash, :expiresAt, :now, false,
+                     CASE WHEN :uaCheck THEN :uaHash END, CASE WHEN :ipCheck THEN :ipHash END
+              FROM old
+              RETURNING user_id, generation
+            )
+            SELECT u.id AS "userId", u.username AS "username", s.generation AS "generation"
+            FROM successor s JOIN users u ON u.id = s.user_id
+            """, nativeQuery = true)
+    Optional<RotatedToken> rotateAtomically(@Param("oldHash") byte[] oldHash,
+                                            @Param("newHash") byte[] newHash,
+                                            @Param("uaCheck") boolean uaCheck,
+                                            @Param("uaHash") byte[] uaHash,
+                                            @Param("ipCheck") boolean ipCheck,
+                                            @Param("ipHash") byte[] ipHash,
+                                            @Param("now") Instant now,
+                                            @Param("expiresAt") Instant expiresAt);
+
+    /** Portable first half of a rotation: compare-and-set revoke of an active, matching token. */
+    @Modifying
+    @Query("""
+            UPDATE RefreshToken t SET t.revoked = true
+            WHERE t.tokenHash = :hash AND t.revoked = false AND t.expiresAt > :now
+              AND t.generation = (SELECT u.tokenGeneration FROM User u WHERE u = t.user)
+              AND (:uaCheck = false OR t.userAgentHash IS NULL OR t.userAgentHash = :uaHash)
+              AND (:ipCheck = false OR t.ipHash IS NULL OR t.ipHash = :ipHash)
+            """)
+    int revokeIfActive(@Param("hash") byte[] hash,
+                       @Param("uaCheck") boolean uaCheck, @Param("uaHash") byte[] uaHash,
+                       @Param("ipCheck") boolean ipCheck, @Param("ipHash") byte[] ipHash,
+                       @Param("now") Instant now);
+
+    /**
+     * Reuse detection: if the presented hash belongs to an already revoked token, revoke
+     * every still-active token of its family - unless the family issued a token after
+     * {@code graceCutoff} (a duplicate of a refresh that is still in flight). Returns the
+     * number of tokens revoked.
+     */
+    @Modifying
+    @Query("""
+            UPDATE RefreshToken t SET t.revoked = true
+            WHERE t.revoked = false AND t.familyId IN (
+              SELECT r.familyId FROM RefreshToken r WHERE r.tokenHash = :hash AND r.revoked = true)
+              AND NOT EXISTS (
+                SELECT 1 FROM RefreshToken s WHERE s.familyId = t.familyId AND s.createdAt > :graceCutoff)
+            """)
+    int revokeFamilyOfRevoked(@Param("hash") byte[] hash, @Param("graceCutoff") Instant graceCutoff);
+
+    interface RotatedToken {
+        Long getUserId();
+        String getUsername();
+        Integer getGeneration();
+    }
+
+    /**
+     * Deletes one bounded batch of expired tokens and of revoked tokens created before
+     * {@code revokedCutoff}. Rows locked by a concurrent refresh are skipped, so the
+     * sweeper never waits on request traffic. Each call runs in its own transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_token WHERE id IN (
+              SELECT id FROM refresh_token
+              WHERE expires_at < :expiredCutoff OR (revoked AND created_at < :revokedCutoff)
+              LIMIT :batchSize
+              FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int purgeBatch(@Param("expiredCutoff") Instant expiredCutoff,
+                   @Param("revokedCutoff") Instant revokedCutoff,
+                   @Param("batchSize") int batchSize);
+
+    /** True when the optional monthly partitioned layout (sql/manual) is installed. */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = 'refresh_token')",
+           nativeQuery = true)
+    boolean isPartitioned();
+
+    /** Creates upcoming monthly partitions and drops those past retention; returns dropped partitions. */
+    @Transactional
+    @Query(value = "SELECT refresh_token_maintain_partitions(:monthsAhead, :retainMonths)", nativeQuery = true)
+    int maintainPartitions(@Param("monthsAhead") int monthsAhead, @Param("retainMonths") int retainMonths);
 }
@@ -2,7 +2,11 @@ package com.larslab.fasting.repo;
 
 import com.larslab.fasting.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +23,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByUsernameOrEmail(String username, String email);
+    
+    @Query("SELECT u.tokenGeneration FROM User u WHERE u.username = :username")
+    Optional<Integer> findTokenGenerationByUsername(@Param("username") String username);
+    
+    /** Log out everywhere: one row update invalidates all tokens issued under the current generation. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.username = :username")
+    int incrementTokenGeneration(@Param("username") String username);
 }
@@ -1,5 +1,6 @@
 package com.larslab.fasting.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,22 +21,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationIndex revocationIndex;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   TokenRevocationIndex revocationIndex) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revocationIndex = revocationIndex;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // actuator and Swagger requests never carry our bearer tokens
+        return RouteClass.of(request) != RouteClass.API;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                                                     @NonNull HttpServletResponse response,
                                                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        String uri = request.getRequestURI();
-        if (uri.startsWith("/actuator/")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         // --- existing JWT extraction & validation logic ---
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
@@ -47,12 +51,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // one signature verification per request; username, generation and expiry come from these claims
+        final Claims claims = jwtService.parseClaims(jwt);
+        username = claims.getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // tokens from before the user's last logout-all are rejected without touching the database
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && revocationIndex.isCurrent(username, jwtService.extractGeneration(claims))) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            if (jwtService.isTokenValid(claims, userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
@@ -0,0 +1,308 @@
+package com.larslab.fasting.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Signing and verification keys for access tokens.
+ *
+ * With {@code jwt.signing.algorithm=HS256} (default) tokens are signed with {@code jwt.secret}
+ * as before. With {@code EdDSA} (Ed25519) or {@code ES256} they are signed with the private key
+ * {@code jwt.signing.active-kid} from {@code jwt.signing.keys-dir} ({@code <kid>.key} PKCS#8 PEM,
+ * {@code <kid>.pub} X.509 PEM) and carry that {@code kid} in the header. Every {@code <kid>.pub}
+ * in the directory verifies, so a key can be rotated by adding the new pair, switching the
+ * active kid and removing the old public key once its tokens have expired. The public keys
+ * are published at {@code /.well-known/jwks.json}.
+ *
+ * While switching from HS256, tokens signed with {@code jwt.secret} still verify until
+ * {@code jwt.signing.accept-hmac-until} (ISO-8601 instant; empty = not at all). Set it to the
+ * switch-over deployment plus the access token lifetime, so no HS256 token outlives the window.
+ *
+ * Keys are parsed once at startup; verification looks the key up by {@code kid} in an
+ * immutable map.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final String PLACEHOLDER_SECRET = "change-me-in-prod";
+    private static final String SECRET_REQUIRED = "JWT secret must be provided via JWT_SECRET env var and be at least 32 characters";
+
+    private final String algorithm;
+    private final Key hmacKey; // null unless a valid jwt.secret is configured
+    private final Instant hmacAcceptedUntil; // HS256 verification cut-off, MAX when signing with HS256
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, PublicKey> verificationKeys;
+    private final String jwksJson;
+
+    public JwtKeyRing(@Value("${jwt.secret:" + PLACEHOLDER_SECRET + "}") String secret,
+                      @Value("${jwt.signing.algorithm:HS256}") String algorithm,
+                      @Value("${jwt.signing.keys-dir:}") String keysDir,
+                      @Value("${jwt.signing.active-kid:}") String activeKid,
+                      @Value("${jwt.signing.accept-hmac-until:}") String acceptHmacUntil,
+                      ObjectMapper objectMapper) {
+        this.algorithm = algorithm.toUpperCase();
+        boolean hmacSigning = "HS256".equals(this.algorithm);
+        if (hmacSigning) {
+            validateSecret(secret);
+        }
+        this.hmacAcceptedUntil = hmacSigning ? Instant.MAX : parseCutOff(acceptHmacUntil);
+        this.hmacKey = hmacAcceptedUntil != null && isUsableSecret(secret)
+                ? Keys.hmacShaKeyFor(secret.getBytes()) : null;
+        if (!hmacSigning && hmacKey != null) {
+            log.warn("Accepting HS256 access tokens until {} (jwt.signing.accept-hmac-until)", hmacAcceptedUntil);
+        }
+
+        if (hmacSigning) {
+            this.activeKid = null;
+            this.signingKey = null;
+            this.signatureAlgorithm = null;
+            this.verificationKeys = Map.of();
+            log.info("JWT secret accepted (length={})", secret.length());
+        } else {
+            this.signatureAlgorithm = signatureAlgorithm(this.algorithm);
+            // sorted by kid, so the JWKS document and its ETag do not depend on directory order
+            Map<String, PublicKey> publicKeys = new TreeMap<>();
+            PrivateKey privateKey;
+            String kid;
+            if (keysDir.isBlank()) {
+                // development convenience: tokens become invalid on restart
+                KeyPair pair = generate(this.algorithm);
+                kid = activeKid.isBlank() ? "ephemeral" : activeKid;
+                privateKey = pair.getPrivate();
+                publicKeys.put(kid, pair.getPublic());
+                log.warn("jwt.signing.keys-dir not set; signing with an ephemeral {} key (kid={})", this.algorithm, kid);
+            } else {
+                if (activeKid.isBlank()) {
+                    throw new IllegalStateException("jwt.signing.active-kid must be set when jwt.signing.keys-dir is used");
+                }
+                kid = activeKid;
+                publicKeys.putAll(loadPublicKeys(Path.of(keysDir), this.algorithm));
+                privateKey = loadPrivateKey(Path.of(keysDir).resolve(kid + ".key"), this.algorithm);
+                if (!publicKeys.containsKey(kid)) {
+                    throw new IllegalStateException("No public key " + kid + ".pub in " + keysDir + " for the active kid");
+                }
+                log.info("JWT signing with {} kid={}; verification kids={}", this.algorithm, kid, publicKeys.keySet());
+            }
+            this.activeKid = kid;
+            this.signingKey = privateKey;
+            this.verificationKeys = Collections.unmodifiableMap(publicKeys);
+        }
+        this.jwksJson = toJwks(verificationKeys, this.algorithm, objectMapper);
+    }
+
+    /** Signs with the active key; asymmetric tokens carry its {@code kid}. */
+    public String sign(JwtBuilder builder) {
+        if (signingKey == null) {
+            return builder.signWith(hmacKey).compact();
+        }
+        return builder.header().keyId(activeKid).and()
+            .signWith(signingKey, signatureAlgorithm)
+            .compact();
+    }
+
+    /** Resolves the verification key from the token header: {@code kid} for asymmetric tokens, the secret for HS256. */
+    public LocatorAdapter<Key> keyLocator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                String kid = header.getKeyId();
+                if (kid != null) {
+                    Key key = verificationKeys.get(kid);
+                    if (key == null) {
+                        throw new io.jsonwebtoken.security.SecurityException("Unknown JWT kid " + kid);
+                    }
+                    return key;
+                }
+                if (hmacKey == null || !header.getAlgorithm().startsWith("HS")) {
+                    throw new io.jsonwebtoken.security.SecurityException("JWT without kid is not accepted");
+                }
+                if (Instant.now().isAfter(hmacAcceptedUntil)) {
+                    throw new io.jsonwebtoken.security.SecurityException("HS256 tokens are no longer accepted");
+                }
+                return hmacKey;
+            }
+        };
+    }
+
+    /** Serialized JWK Set of all verification keys (empty for HS256, the secret is never published). */
+    public String jwksJson() {
+        return jwksJson;
+    }
+
+    private static void validateSecret(String secret) {
+        if (secret == null) {
+            log.error("JWT secret missing (null)");
+            throw new IllegalStateException(SECRET_REQUIRED);
+        }
+        if (secret.equals(PLACEHOLDER_SECRET)) {
+            log.error("JWT secret is still default placeholder (length={})", secret.length());
+            throw new IllegalStateException(SECRET_REQUIRED);
+        }
+        if (secret.length() < 32) {
+            log.error("JWT secret too short (length={})", secret.length());
+            throw new IllegalStateException(SECRET_REQUIRED);
+        }
+    }
+
+    private static Instant parseCutOff(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("jwt.signing.accept-hmac-until must be an ISO-8601 instant, e.g. 2026-01-31T00:00:00Z", e);
+        }
+    }
+
+    private static boolean isUsableSecret(String secret) {
+        return secret != null && !secret.equals(PLACEHOLDER_SECRET) && secret.length() >= 32;
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String algorithm) {
+        return switch (algorithm) {
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            case "ES256" -> Jwts.SIG.ES256;
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm " + algorithm + " (HS256, EdDSA, ES256)");
+        };
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return "ES256".equals(algorithm) ? "EC" : "Ed25519";
+    }
+
+    private static KeyPair generate(String algorithm) {
+        try {
+            if ("ES256".equals(algorithm)) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return generator.generateKeyPair();
+            }
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    private static Map<String, PublicKey> loadPublicKeys(Path dir, String algorithm) {
+        Map<String, PublicKey> keys = new TreeMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".pub")).toList()) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - ".pub".length());
+                keys.put(kid, KeyFactory.getInstance(keyFactoryAlgorithm(algorithm))
+                        .generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + dir, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT public key in " + dir, e);
+        }
+        return keys;
+    }
+
+    private static PrivateKey loadPrivateKey(Path file, String algorithm) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm))
+                    .generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT signing key " + file, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT signing key " + file, e);
+        }
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                body.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(body.toString());
+    }
+
+    private static String toJwks(Map<String, PublicKey> keys, String algorithm, ObjectMapper objectMapper) {
+        List<Map<String, String>> jwks = new ArrayList<>();
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+        keys.forEach((kid, key) -> {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            if (key instanceof ECPublicKey ec) {
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", b64.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+                jwk.put("y", b64.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+                jwk.put("alg", "ES256");
+            } else {
+                // X.509 SubjectPublicKeyInfo of Ed25519 ends with the 32 raw key bytes
+                byte[] encoded = key.getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", b64.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+                jwk.put("alg", "EdDSA");
+            }
+            jwk.put("use", "sig");
+            jwk.put("kid", kid);
+            jwks.add(jwk);
+        });
+        try {
+            return objectMapper.writeValueAsString(Map.of("keys", jwks));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize JWKS for " + algorithm, e);
+        }
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] out = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, out, length - copy, copy);
+        return out;
+    }
+}
@@ -57,8 +57,9 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         String ip = request.getHeader("X-Forwarded-For");
         if (ip != null && !ip.isBlank()) ip = ip.split(",")[0].trim();
         if (ip == null || ip.isBlank()) ip = request.getRemoteAddr();
-        // Include coarse endpoint path to avoid one noisy route starving others
-        String path = request.getRequestURI();
-        return ip + '|' + path;
+        // Include coarse endpoint path to avoid one noisy route starving others;
+        // actuator / Swagger paths share one bucket per class instead of one per URI
+        RouteClass route = RouteClass.of(request);
+        return ip + '|' + (route == RouteClass.API ? request.getRequestURI() : route.name());
     }
 }
@@ -0,0 +1,57 @@
+package com.larslab.fasting.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Coarse class of a request path, as far as the custom security filters care. Classified
+ * once per request by the first filter that asks (plain string comparisons, no pattern
+ * matching) and kept as a request attribute for the others.
+ */
+public enum RouteClass {
+
+    /** {@code /actuator/**} except the admin and metrics endpoints: no bearer token processing. */
+    ACTUATOR,
+    /** {@code /actuator/prometheus}: Swagger Basic credentials only, scrapers cannot answer 2FA. */
+    METRICS,
+    /** {@code /actuator/slowqueries}: always behind the Swagger admin credentials. */
+    ADMIN,
+    /** Swagger UI and OpenAPI document: Swagger credentials when enabled, no bearer token processing. */
+    API_DOCS,
+    /** {@code /swagger-2fa}: HTML second-factor flow of the Swagger login. */
+    SWAGGER_2FA,
+    /** Everything else. */
+    API;
+
+    static final String ATTRIBUTE = RouteClass.class.getName();
+
+    public static RouteClass of(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUTE) instanceof RouteClass route) {
+            return route;
+        }
+        RouteClass route = classify(request.getRequestURI());
+        request.setAttribute(ATTRIBUTE, route);
+        return route;
+    }
+
+    static RouteClass classify(String path) {
+        if (path.startsWith("/actuator/")) {
+            return switch (path) {
+                case "/actuator/slowqueries" -> ADMIN;
+                case "/actuator/prometheus" -> METRICS;
+                default -> ACTUATOR;
+            };
+        }
+        if (under(path, "/swagger-ui") || under(path, "/v3/api-docs") || "/swagger-ui.html".equals(path)) {
+            return API_DOCS;
+        }
+        if ("/swagger-2fa".equals(path)) {
+            return SWAGGER_2FA;
+        }
+        return API;
+    }
+
+    // same as the ant pattern "<prefix>/**": the prefix itself or anything below it
+    private static boolean under(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+}
@@ -1,10 +1,15 @@
 package com.larslab.fasting.security;
 
 import com.larslab.fasting.logging.CorrelationIdFilter;
+import com.larslab.fasting.jdbc.SlowQueryEndpoint;
+import com.larslab.fasting.logging.RequestTiming;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -30,9 +35,14 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // authority granted by SwaggerBasicAuthFilter after Basic (+ 2FA) login
+                .requestMatchers(EndpointRequest.to(SlowQueryEndpoint.class)).hasAuthority(SwaggerBasicAuthFilter.ADMIN_AUTHORITY)
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class))
+                    .hasAnyAuthority(SwaggerBasicAuthFilter.METRICS_AUTHORITY, SwaggerBasicAuthFilter.ADMIN_AUTHORITY)
                 .requestMatchers(
                     "/actuator/health", "/actuator/info",
                     "/api/users/login-or-create", "/api/users/refresh", "/api/users/logout",
+                    "/.well-known/jwks.json",
                     // allow swagger endpoints through authorization; they are gated by SwaggerBasicAuthFilter
                     "/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html"
                 ).permitAll()
@@ -41,7 +51,9 @@ public class SecurityConfig {
             .addFilterBefore(correlationIdFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(swaggerBasicAuthFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
-            .addFilterAfter(rateLimitingFilter, JwtAuthenticationFilter.class);
+            .addFilterAfter(rateLimitingFilter, JwtAuthenticationFilter.class)
+            // last in the chain: marks where security filter time ends for the access log
+            .addFilterAfter(RequestTiming.securityExitMarker(), AuthorizationFilter.class);
         return http.build();
     }
 }
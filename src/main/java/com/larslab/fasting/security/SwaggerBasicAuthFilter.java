@@ -5,46 +5,76 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.Cookie;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.net.URLEncoder;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jboss.aerogear.security.otp.Totp;
 import org.jboss.aerogear.security.otp.api.Base32;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
-import java.time.Instant;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.security.GeneralSecurityException;
 
 /**
  * Protects Swagger UI and OpenAPI endpoints with simple HTTP Basic credentials from env/properties.
- * Paths protected: /swagger-ui/**, /v3/api-docs/**, /swagger-ui.html
+ * Paths protected: /swagger-ui/**, /v3/api-docs/**, /swagger-ui.html, the admin
+ * actuator endpoint /actuator/slowqueries and /actuator/prometheus (Basic only, no 2FA)
  *
  * Enable by providing SWAGGER_BASIC_USER and SWAGGER_BASIC_PASS env variables (or Spring properties).
+ * A successful login is also recorded as an authentication with the {@value #ADMIN_AUTHORITY}
+ * authority, which {@link SecurityConfig} requires for the admin endpoint; a Basic login on the
+ * metrics endpoint only grants {@value #METRICS_AUTHORITY}.
+ *
+ * A Swagger UI page load fires dozens of asset requests; verified 2FA session cookies are
+ * therefore remembered (bounded, for at most the cookie lifetime) instead of being re-signed
+ * on every request. Basic credentials are compared on every request and never retained.
  */
 @Component
 public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
 
-    private static final AntPathMatcher matcher = new AntPathMatcher();
     private static final Logger log = LoggerFactory.getLogger(SwaggerBasicAuthFilter.class);
 
+    public static final String ADMIN_AUTHORITY = "ADMIN";
+    public static final String METRICS_AUTHORITY = "METRICS";
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority(ADMIN_AUTHORITY));
+    private static final List<GrantedAuthority> METRICS_AUTHORITIES = List.of(new SimpleGrantedAuthority(METRICS_AUTHORITY));
+
     private final String username;
     private final String password;
     private final boolean enabled;
     private final boolean twoFactorEnabled;
     private final String twoFactorCode; // static header-code fallback
     private final String totpSecret;    // Base32 TOTP secret
+    private final String totpSecretBase32; // normalised once; null if no TOTP secret
     private final int sessionMinutes;   // minutes for cookie session
     private final byte[] sessionKey;    // HMAC key for cookie signing
+    private final ThreadLocal<Mac> sessionMac;
+    private final Clock clock;          // cookie expiry and cache ticker
+    private final Cache<String, VerifiedSession> verifiedSessions;     // SWAGGER_2FA cookie value -> session
+
+    private record VerifiedSession(String user, long exp) {}
 
+    @Autowired
     public SwaggerBasicAuthFilter(
             @Value("${SWAGGER_BASIC_USER:}") String username,
             @Value("${SWAGGER_BASIC_PASS:}") String password,
@@ -55,23 +85,38 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
             @Value("${SWAGGER_2FA_SESSION_MINUTES:15}") int sessionMinutes,
             @Value("${JWT_SECRET:}") String jwtSecret
     ) {
+        this(username, password, enabled, twoFactorEnabled, twoFactorCode, totpSecret, sessionMinutes, jwtSecret,
+                Clock.systemUTC());
+    }
+
+    SwaggerBasicAuthFilter(String username, String password, boolean enabled, boolean twoFactorEnabled,
+                           String twoFactorCode, String totpSecret, int sessionMinutes, String jwtSecret, Clock clock) {
+        this.clock = clock;
         this.username = username;
         this.password = password;
         this.enabled = enabled;
         this.twoFactorEnabled = twoFactorEnabled;
         this.twoFactorCode = twoFactorCode;
         this.totpSecret = totpSecret;
+        this.totpSecretBase32 = (totpSecret == null || totpSecret.isBlank())
+                ? null : ensureBase32(totpSecret.trim().replace(" ", "").toUpperCase());
         this.sessionMinutes = sessionMinutes > 0 ? sessionMinutes : 15;
         // Prefer JWT_SECRET for signing; if empty, generate ephemeral key (valid until restart)
         byte[] key;
         if (jwtSecret != null && !jwtSecret.isBlank()) {
             key = jwtSecret.getBytes(StandardCharsets.UTF_8);
         } else {
-            key = ("ephemeral-" + System.identityHashCode(this) + "-" + Instant.now().toEpochMilli())
+            key = ("ephemeral-" + System.identityHashCode(this) + "-" + clock.millis())
                     .getBytes(StandardCharsets.UTF_8);
             log.warn("No JWT_SECRET available; using ephemeral key for 2FA session cookie (valid only until restart)");
         }
         this.sessionKey = key;
+        this.sessionMac = ThreadLocal.withInitial(() -> newMac(sessionKey));
+        this.verifiedSessions = Caffeine.newBuilder()
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfterWrite(Duration.ofMinutes(this.sessionMinutes))
+                .maximumSize(1_000)
+                .build();
         if (enabled) {
             if (username == null || username.isBlank()) {
                 log.info("Swagger BasicAuth enabled but username is not set");
@@ -94,14 +139,13 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        String path = request.getRequestURI();
-        // Filter only Swagger/OpenAPI paths
-        boolean isSwaggerPath = matcher.match("/swagger-ui/**", path)
-                || matcher.match("/v3/api-docs/**", path)
-                || matcher.match("/swagger-ui.html", path);
-        boolean is2faPath = matcher.match("/swagger-2fa", path);
-        // Skip filtering if not swagger path or if disabled
-        return !(isSwaggerPath || is2faPath) || !enabled;
+        return switch (RouteClass.of(request)) {
+            // admin and metrics endpoints are never left open, even when Swagger auth is switched off
+            case ADMIN, METRICS -> false;
+            // Filter only Swagger/OpenAPI paths, and only if enabled
+            case API_DOCS, SWAGGER_2FA -> !enabled;
+            default -> true;
+        };
     }
 
     @Override
@@ -150,7 +194,21 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Prometheus scrapers send Basic credentials but cannot answer a second factor
+        if (RouteClass.of(request) == RouteClass.METRICS) {
+            if (getBasicUserIfValid(request) != null) {
+                authenticate(METRICS_AUTHORITIES);
+                filterChain.doFilter(request, response);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader("WWW-Authenticate", "Basic realm=Swagger");
+            response.getWriter().write("Unauthorized");
+            return;
+        }
+
         if (isAuthorized(request, response)) {
+            authenticate(ADMIN_AUTHORITIES);
             filterChain.doFilter(request, response);
             return;
         }
@@ -179,64 +237,34 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
 
     private boolean isAuthorized(HttpServletRequest request, HttpServletResponse response) {
         // if no creds configured, deny by default when enabled
-        if (username == null || username.isBlank() || password == null || password.isBlank()) {
-            return false;
-        }
-        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (header == null || !header.startsWith("Basic ")) {
-            return false;
-        }
-        try {
-            String base64Credentials = header.substring(6);
-            byte[] decoded = Base64.getDecoder().decode(base64Credentials);
-            String pair = new String(decoded, StandardCharsets.UTF_8);
-            int idx = pair.indexOf(':');
-            if (idx < 0) return false;
-            String user = pair.substring(0, idx);
-            String pass = pair.substring(idx + 1);
-            boolean basicOk = username.equals(user) && password.equals(pass);
-            if (!basicOk) return false;
+        String user = getBasicUserIfValid(request);
+        if (user == null) return false;
 
-            if (!twoFactorEnabled) return true;
+        if (!twoFactorEnabled) return true;
 
-            // 1) Cookie session shortcut
-            if (hasValid2faSessionCookie(request, user)) {
-                return true;
-            }
-            // header-based second factor; prefer X-2FA, allow X-SWAGGER-2FA as alias
-            String code = request.getHeader("X-2FA");
-            if (code == null || code.isBlank()) {
-                code = request.getHeader("X-SWAGGER-2FA");
-            }
-            if (code == null || code.isBlank()) return false;
+        // 1) Cookie session shortcut
+        if (hasValid2faSessionCookie(request, user)) {
+            return true;
+        }
+        // header-based second factor; prefer X-2FA, allow X-SWAGGER-2FA as alias
+        String code = request.getHeader("X-2FA");
+        if (code == null || code.isBlank()) {
+            code = request.getHeader("X-SWAGGER-2FA");
+        }
+        if (code == null || code.isBlank()) return false;
 
-            // If TOTP secret present, validate as TOTP; else fallback to static code
-            if (totpSecret != null && !totpSecret.isBlank()) {
-                try {
-                    String normalizedSecret = ensureBase32(totpSecret.trim().replace(" ", "").toUpperCase());
-                    Totp totp = new Totp(normalizedSecret);
-                    if (totp.verify(code)) {
-                        // Issue session cookie
-                        issue2faSessionCookie(response, user);
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } catch (Exception e) {
-                    log.warn("TOTP verification failed due to exception: {}", e.toString());
-                    return false;
-                }
-            }
-            // Static fallback
-            if (twoFactorCode == null || twoFactorCode.isBlank()) return false;
-            boolean ok = twoFactorCode.equals(code);
-            if (ok) {
-                issue2faSessionCookie(response, user);
-            }
-            return ok;
-        } catch (IllegalArgumentException e) {
-            return false;
+        // TOTP if a secret is configured, else the static code
+        boolean ok = verifySecondFactorCode(code);
+        if (ok) {
+            issue2faSessionCookie(response, user);
         }
+        return ok;
+    }
+
+    private void authenticate(List<GrantedAuthority> authorities) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, authorities));
+        SecurityContextHolder.setContext(context);
     }
 
     private boolean hasValid2faSessionCookie(HttpServletRequest request, String user) {
@@ -244,13 +272,20 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
         for (Cookie c : request.getCookies()) {
             if ("SWAGGER_2FA".equals(c.getName())) {
                 String value = c.getValue();
+                long now = clock.instant().getEpochSecond();
+                VerifiedSession verified = verifiedSessions.getIfPresent(value);
+                if (verified != null) {
+                    return verified.user().equals(user) && now <= verified.exp();
+                }
                 try {
                     String[] parts = value.split("\\.");
                     if (parts.length != 2) return false;
                     long exp = Long.parseLong(parts[0]);
-                    if (Instant.now().getEpochSecond() > exp) return false;
-                    String expectedSig = hmacHex(user + "|" + exp, sessionKey);
-                    return constantTimeEquals(parts[1], expectedSig);
+                    if (now > exp) return false;
+                    String expectedSig = hmacHex(user + "|" + exp);
+                    if (!constantTimeEquals(parts[1], expectedSig)) return false;
+                    verifiedSessions.put(value, new VerifiedSession(user, exp));
+                    return true;
                 } catch (Exception ex) {
                     return false;
                 }
@@ -271,7 +306,10 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
             if (idx < 0) return null;
             String user = pair.substring(0, idx);
             String pass = pair.substring(idx + 1);
-            return (username.equals(user) && password.equals(pass)) ? user : null;
+            // both compared in full, so the timing does not tell which one was wrong
+            boolean userOk = constantTimeEquals(username, user);
+            boolean passOk = constantTimeEquals(password, pass);
+            return userOk && passOk ? user : null;
         } catch (IllegalArgumentException e) {
             return null;
         }
@@ -331,11 +369,9 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
     }
 
     private boolean verifySecondFactorCode(String code) {
-        if (totpSecret != null && !totpSecret.isBlank()) {
+        if (totpSecretBase32 != null) {
             try {
-                String normalizedSecret = ensureBase32(totpSecret.trim().replace(" ", "").toUpperCase());
-                Totp totp = new Totp(normalizedSecret);
-                return totp.verify(code);
+                return new Totp(totpSecretBase32).verify(code);
             } catch (Exception e) {
                 log.warn("TOTP verification failed due to exception: {}", e.toString());
                 return false;
@@ -352,8 +388,8 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
     }
 
     private void issue2faSessionCookie(HttpServletResponse response, String user) {
-        long exp = Instant.now().plus(Duration.ofMinutes(sessionMinutes)).getEpochSecond();
-        String sig = hmacHex(user + "|" + exp, sessionKey);
+        long exp = clock.instant().plus(Duration.ofMinutes(sessionMinutes)).getEpochSecond();
+        String sig = hmacHex(user + "|" + exp);
         String token = exp + "." + sig;
         Cookie cookie = new Cookie("SWAGGER_2FA", token);
         cookie.setHttpOnly(true);
@@ -365,16 +401,18 @@ public class SwaggerBasicAuthFilter extends OncePerRequestFilter {
         response.addHeader("Set-Cookie", String.format("SWAGGER_2FA=%s; Max-Age=%d; Path=/; HttpOnly; Secure; SameSite=Lax", token, sessionMinutes * 60));
     }
 
-    private static String hmacHex(String data, byte[] key) {
+    private String hmacHex(String data) {
+        Mac mac = sessionMac.get();
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Mac newMac(byte[] key) {
         try {
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(new SecretKeySpec(key, "HmacSHA256"));
-            byte[] h = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(h.length * 2);
-            for (byte b : h) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to compute HMAC", e);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise HMAC", e);
         }
     }
 
@@ -0,0 +1,63 @@
+package com.larslab.fasting.security;
+
+import com.larslab.fasting.repo.UserRepository;
+import com.larslab.fasting.service.RefreshTokenService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user token generation, checked for every bearer token. Access tokens carry the
+ * generation they were issued under (claim {@code gen}); a hit is one map lookup, a miss
+ * loads the generation once. {@link #revokeAll} ("log out everywhere") is a single row
+ * update plus invalidation of the local entry.
+ *
+ * Entries expire after {@code security.token-generation.cache-ttl-seconds}, which bounds
+ * how long other instances keep accepting the old generation.
+ */
+@Component
+public class TokenRevocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final LoadingCache<String, Integer> generations;
+
+    public TokenRevocationIndex(UserRepository userRepository, RefreshTokenService refreshTokenService,
+                                @Value("${security.token-generation.cache-ttl-seconds:60}") long ttlSeconds,
+                                @Value("${security.token-generation.max-entries:100000}") long maxEntries) {
+        this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.generations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build(username -> userRepository.findTokenGenerationByUsername(username).orElse(null));
+    }
+
+    /** True if {@code generation} is the user's current one; unknown users never match. */
+    public boolean isCurrent(String username, int generation) {
+        Integer current = generations.get(username);
+        return current != null && current == generation;
+    }
+
+    /**
+     * Invalidates every access and refresh token of the user. Returns false if the user
+     * does not exist.
+     */
+    public boolean revokeAll(String username) {
+        // committed by the repository call, so a concurrent miss cannot reload the old value afterwards
+        if (userRepository.incrementTokenGeneration(username) == 0) {
+            return false;
+        }
+        generations.invalidate(username);
+        refreshTokenService.forgetRecentRotations(username);
+        log.info("Revoked all tokens of user {}", username);
+        return true;
+    }
+}
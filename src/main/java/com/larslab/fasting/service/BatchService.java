@@ -0,0 +1,85 @@
+package com.larslab.fasting.service;
+
+import com.larslab.fasting.config.FeatureFlags;
+import com.larslab.fasting.dto.BatchRequest;
+import com.larslab.fasting.dto.BatchResponse;
+import com.larslab.fasting.dto.StartFastRequest;
+import com.larslab.fasting.dto.UserResponse;
+import com.larslab.fasting.model.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays the queued operations of an offline client for one user: the user is loaded once
+ * and all operations run in order inside one transaction, so the batch pays for a single
+ * user lookup, connection checkout and commit instead of one per request.
+ *
+ * All or nothing: the first failing operation marks the transaction rollback-only, later
+ * operations are not executed (424). Per-operation savepoints would not help here, since a
+ * JDBC savepoint does not roll back the entities already changed in the persistence context.
+ */
+@Service
+public class BatchService {
+
+    static final int FAILED_DEPENDENCY = 424;
+
+    private final UserService userService;
+    private final FastService fastService;
+    private final FeatureFlags featureFlags;
+
+    public BatchService(UserService userService, FastService fastService, FeatureFlags featureFlags) {
+        this.userService = userService;
+        this.fastService = fastService;
+        this.featureFlags = featureFlags;
+    }
+
+    @Transactional
+    @Timed(value = "batch.service", histogram = true)
+    public BatchResponse execute(String username, List<BatchRequest.Operation> operations) {
+        User user = userService.getUserByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+        boolean failed = false;
+        for (BatchRequest.Operation operation : operations) {
+            if (failed) {
+                results.add(new BatchResponse.Result(operation.getClientId(), operation.getType(), FAILED_DEPENDENCY,
+                        null, "Nicht ausgeführt: eine vorherige Operation ist fehlgeschlagen"));
+                continue;
+            }
+            try {
+                results.add(new BatchResponse.Result(operation.getClientId(), operation.getType(), 200,
+                        run(user, operation), null));
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                // same status as the single endpoints: conflicts and invalid values are 400
+                results.add(new BatchResponse.Result(operation.getClientId(), operation.getType(), 400,
+                        null, e.getMessage()));
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                failed = true;
+            }
+        }
+        return new BatchResponse(!failed, results);
+    }
+
+    private Object run(User user, BatchRequest.Operation operation) {
+        return switch (operation.getType()) {
+            case START -> fastService.start(user, new StartFastRequest(
+                    operation.getGoalHours() != null ? operation.getGoalHours() : 16));
+            case STOP -> fastService.stop(user);
+            case STATUS -> fastService.getStatus(user);
+            case PREFERENCES -> {
+                if (operation.getPreferences() == null) {
+                    throw new IllegalArgumentException("preferences fehlt");
+                }
+                // findById inside updatePreferences is served by the persistence context
+                yield new UserResponse(userService.updatePreferences(user.getId(), operation.getPreferences()),
+                        featureFlags);
+            }
+        };
+    }
+}
@@ -0,0 +1,412 @@
+package com.larslab.fasting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.larslab.fasting.dto.FastImportEvent;
+import com.larslab.fasting.model.User;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Imports completed fasts from CSV ({@code startAt,endAt,goalHours}, header optional) or
+ * NDJSON (one {@code {"startAt":…,"endAt":…,"goalHours":…}} object per line), read line by
+ * line from the upload. Every row is validated on its own (ISO-8601 times, goal hours 1-48,
+ * {@code endAt >= startAt}, not in the future, no overlap with existing or earlier imported
+ * sessions); rejected rows are reported and skipped. Lines are capped at
+ * {@code fast.import.max-line-length} characters.
+ *
+ * Reading the upload happens outside any transaction: accepted rows are spooled to a temp
+ * file, so memory holds the user's (merged) session intervals, never the file. Only then one
+ * short transaction locks the user's row, re-checks the spooled rows against the sessions
+ * written meanwhile and inserts them with batched JDBC inserts: either all accepted rows are
+ * committed or, if the upload breaks off or exceeds {@code fast.import.max-rows}, none.
+ * Change versions are reserved with one counter update per batch; the per-row trigger is
+ * bypassed for these rows. Nothing is sent to the client while that transaction runs, so a slow reader cannot hold
+ * the lock or the connection; rows rejected there are reported after the commit.
+ */
+@Service
+public class FastImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // versions reserved per batch, see V9__fast_session_import_versions
+    private static final String INSERT = "INSERT INTO fast_session (user_id, start_at, end_at, goal_hours, version, created_version)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String RESERVE_VERSIONS =
+            "UPDATE users SET fast_session_version = fast_session_version + ? WHERE id = ? RETURNING fast_session_version";
+    private static final String OVERLAP = "Überschneidet sich mit einer anderen Fasten-Session";
+    // CSV without header: positions of startAt, endAt, goalHours
+    private static final int[] CSV_DEFAULT = {0, 1, 2};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long maxRows;
+    private final int maxLineLength;
+    private final int maxReportedErrors;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public FastImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${fast.import.batch-size:500}") int batchSize,
+                             @Value("${fast.import.max-rows:100000}") long maxRows,
+                             @Value("${fast.import.max-line-length:4096}") int maxLineLength,
+                             @Value("${fast.import.max-reported-errors:100}") int maxReportedErrors,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxLineLength = maxLineLength;
+        this.maxReportedErrors = maxReportedErrors;
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, String result) {
+        return Counter.builder("fasting.import.rows")
+                .description("Rows of fasting imports, by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Reads and validates the rows, then writes the accepted ones into {@code fast_session}.
+     * Per-row errors (the first {@code fast.import.max-reported-errors}) and progress after
+     * every {@code fast.import.batch-size} accepted rows go to {@code events}; only the
+     * returned DONE event states committed counts.
+     */
+    @Timed(value = "fasting.service", histogram = true)
+    public FastImportEvent importSessions(User user, BufferedReader reader, Format format,
+                                          Consumer<FastImportEvent> events) throws IOException {
+        Path spool = Files.createTempFile("fast-import-", ".bin");
+        try {
+            Tally tally = new Tally(events);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spool)))) {
+                readRows(user, reader, format, out, tally);
+            }
+            List<FastImportEvent> lateErrors = new ArrayList<>();
+            tally.events = lateErrors::add;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spool)))) {
+                transactionTemplate.executeWithoutResult(status -> writeRows(user, in, tally));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            lateErrors.forEach(events);
+            return FastImportEvent.done(tally.line, tally.imported, tally.rejected);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    /** Running totals of one import; also reports rejected rows. */
+    private final class Tally {
+        private Consumer<FastImportEvent> events;
+        private long line;
+        private long accepted;
+        private long imported;
+        private long rejected;
+
+        private Tally(Consumer<FastImportEvent> events) {
+            this.events = events;
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (rejected <= maxReportedErrors) {
+                events.accept(FastImportEvent.error(line, message));
+            }
+        }
+    }
+
+    /** Phase 1, no transaction: parse and validate the upload, spool accepted rows. */
+    private void readRows(User user, BufferedReader reader, Format format, DataOutputStream spool,
+                          Tally tally) throws IOException {
+        NavigableMap<Instant, Instant> taken = existingSessions(user.getId());
+        Instant now = Instant.now();
+        int[] columns = format == Format.CSV ? null : new int[0];
+        long rows = 0;
+        StringBuilder buffer = new StringBuilder();
+        String text;
+        while ((text = readLine(reader, buffer, tally.line + 1)) != null) {
+            tally.line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (columns == null) {
+                columns = csvHeader(text);
+                if (columns != CSV_DEFAULT) {
+                    continue;
+                }
+            }
+            if (++rows > maxRows) {
+                throw new IllegalArgumentException("Maximal " + maxRows + " Zeilen pro Import");
+            }
+            Row row;
+            try {
+                row = format == Format.CSV ? csvRow(text, columns) : jsonRow(text);
+                validate(row, taken, now);
+            } catch (IllegalArgumentException e) {
+                tally.reject(tally.line, e.getMessage());
+                continue;
+            }
+            taken.put(row.startAt(), row.endAt());
+            if (++tally.accepted % batchSize == 0) {
+                tally.events.accept(FastImportEvent.progress(tally.line, tally.accepted, tally.rejected));
+            }
+            spool.writeLong(tally.line);
+            spool.writeLong(row.startAt().getEpochSecond());
+            spool.writeInt(row.startAt().getNano());
+            spool.writeLong(row.endAt().getEpochSecond());
+            spool.writeInt(row.endAt().getNano());
+            spool.writeInt(row.goalHours());
+        }
+    }
+
+    /**
+     * Phase 2, in the transaction: lock the user's row, drop spooled rows that overlap sessions
+     * written since phase 1 and insert the rest in batches. Reports nothing to the client.
+     */
+    private void writeRows(User user, DataInputStream spool, Tally tally) {
+        // serializes with other writes of this user, which update the same row (V8 trigger)
+        jdbcTemplate.queryForObject("SELECT id FROM users WHERE id = ? FOR UPDATE", Long.class, user.getId());
+        // rows come with versions reserved by flush(), the insert trigger skips them (V9)
+        jdbcTemplate.queryForObject("SELECT set_config('fasting.versions_assigned', 'on', true)", String.class);
+        NavigableMap<Instant, Instant> taken = existingSessions(user.getId());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                long line;
+                try {
+                    line = spool.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                Instant startAt = Instant.ofEpochSecond(spool.readLong(), spool.readInt());
+                Instant endAt = Instant.ofEpochSecond(spool.readLong(), spool.readInt());
+                int goalHours = spool.readInt();
+                if (overlaps(startAt, endAt, taken)) {
+                    tally.reject(line, OVERLAP);
+                    continue;
+                }
+                batch.add(new Object[]{user.getId(), utc(startAt), utc(endAt), goalHours, null, null});
+                if (batch.size() == batchSize) {
+                    tally.imported += flush(user.getId(), batch);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        tally.imported += flush(user.getId(), batch);
+    }
+
+    /**
+     * Next line without its terminator, or {@code null} at the end of the input. Unlike
+     * {@link BufferedReader#readLine()} the line length is bounded.
+     */
+    private String readLine(BufferedReader reader, StringBuilder buffer, long line) throws IOException {
+        buffer.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (buffer.length() == maxLineLength) {
+                throw new IllegalArgumentException("Zeile " + line + " ist länger als " + maxLineLength + " Zeichen");
+            }
+            buffer.append((char) c);
+        }
+        if (c == -1 && buffer.isEmpty()) {
+            return null;
+        }
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) == '\r') {
+            buffer.setLength(length - 1);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Start -> end of the user's sessions, merged so the intervals are disjoint: an interval
+     * contained in an earlier, longer one would otherwise hide from the neighbour lookups.
+     */
+    private NavigableMap<Instant, Instant> existingSessions(Long userId) {
+        NavigableMap<Instant, Instant> taken = new TreeMap<>();
+        RowCallbackHandler collect = rs -> {
+            Instant start = rs.getObject("start_at", OffsetDateTime.class).toInstant();
+            OffsetDateTime endAt = rs.getObject("end_at", OffsetDateTime.class);
+            // a running fast blocks everything after its start
+            Instant end = endAt == null ? Instant.MAX : endAt.toInstant();
+            Map.Entry<Instant, Instant> last = taken.lastEntry();
+            if (last == null || start.isAfter(last.getValue())) {
+                taken.put(start, end);
+            } else if (end.isAfter(last.getValue())) {
+                taken.put(last.getKey(), end);
+            }
+        };
+        jdbcTemplate.query("SELECT start_at, end_at FROM fast_session WHERE user_id = ? ORDER BY start_at",
+                collect, userId);
+        return taken;
+    }
+
+    /** Inserts the batch under consecutive change versions, taken with a single counter update. */
+    private int flush(Long userId, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long last = jdbcTemplate.queryForObject(RESERVE_VERSIONS, Long.class, batch.size(), userId);
+        long version = last - batch.size();
+        for (Object[] row : batch) {
+            row[4] = ++version;
+            row[5] = version;
+        }
+        jdbcTemplate.batchUpdate(INSERT, batch);
+        int written = batch.size();
+        importedRows.increment(written);
+        batch.clear();
+        return written;
+    }
+
+    private static void validate(Row row, NavigableMap<Instant, Instant> taken, Instant now) {
+        if (row.goalHours() < 1 || row.goalHours() > 48) {
+            throw new IllegalArgumentException("goalHours muss zwischen 1 und 48 liegen");
+        }
+        if (row.endAt().isBefore(row.startAt())) {
+            throw new IllegalArgumentException("endAt liegt vor startAt");
+        }
+        if (row.endAt().isAfter(now)) {
+            throw new IllegalArgumentException("endAt liegt in der Zukunft");
+        }
+        if (overlaps(row.startAt(), row.endAt(), taken)) {
+            throw new IllegalArgumentException(OVERLAP);
+        }
+    }
+
+    /** {@code taken} holds disjoint intervals; touching sessions (end == next start) are fine. */
+    private static boolean overlaps(Instant startAt, Instant endAt, NavigableMap<Instant, Instant> taken) {
+        Map.Entry<Instant, Instant> before = taken.floorEntry(startAt);
+        Map.Entry<Instant, Instant> after = taken.higherEntry(startAt);
+        return (before != null && (before.getKey().equals(startAt) || before.getValue().isAfter(startAt)))
+                || (after != null && after.getKey().isBefore(endAt));
+    }
+
+    private record Row(Instant startAt, Instant endAt, int goalHours) {}
+
+    /** Column positions from a header line, or {@link #CSV_DEFAULT} if the line is already data. */
+    private static int[] csvHeader(String text) {
+        String[] names = text.split(",", -1);
+        String first = unquote(names[0]);
+        if (!first.isEmpty() && Character.isDigit(first.charAt(0))) {
+            return CSV_DEFAULT;
+        }
+        int[] columns = {-1, -1, -1};
+        for (int i = 0; i < names.length; i++) {
+            switch (unquote(names[i]).toLowerCase(Locale.ROOT).replace("_", "")) {
+                case "startat" -> columns[0] = i;
+                case "endat" -> columns[1] = i;
+                case "goalhours" -> columns[2] = i;
+                default -> { }
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0) {
+            throw new IllegalArgumentException("CSV-Header braucht die Spalten startAt und endAt");
+        }
+        return columns;
+    }
+
+    private static Row csvRow(String text, int[] columns) {
+        String[] values = text.split(",", -1);
+        return new Row(
+                instant(column(values, columns[0]), "startAt"),
+                instant(column(values, columns[1]), "endAt"),
+                goalHours(column(values, columns[2])));
+    }
+
+    private Row jsonRow(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ungültiges JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Zeile ist kein JSON-Objekt");
+        }
+        return new Row(
+                instant(field(node, "startAt", "start_at"), "startAt"),
+                instant(field(node, "endAt", "end_at"), "endAt"),
+                goalHours(field(node, "goalHours", "goal_hours")));
+    }
+
+    private static String column(String[] values, int index) {
+        return index >= 0 && index < values.length ? unquote(values[index]) : "";
+    }
+
+    private static String field(JsonNode node, String name, String snakeName) {
+        JsonNode value = node.hasNonNull(name) ? node.get(name) : node.get(snakeName);
+        return value == null || value.isNull() ? "" : value.asText().trim();
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        return trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")
+                ? trimmed.substring(1, trimmed.length() - 1).trim() : trimmed;
+    }
+
+    private static Instant instant(String value, String name) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " fehlt");
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " ist kein ISO-8601-Zeitpunkt: " + value);
+        }
+    }
+
+    private static int goalHours(String value) {
+        if (value.isEmpty()) {
+            return 16;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("goalHours ist keine Zahl: " + value);
+        }
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
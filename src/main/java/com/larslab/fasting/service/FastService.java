@@ -5,18 +5,36 @@ import com.larslab.fasting.model.User;
 import com.larslab.fasting.repo.FastRepository;
 import com.larslab.fasting.dto.StartFastRequest;
 import com.larslab.fasting.dto.FastStatusResponse;
+import com.larslab.fasting.dto.FastSessionChangesResponse;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class FastService {
     private final FastRepository repo;
+    private final Counter alreadyActiveConflicts;
+    private final Counter noActiveFastConflicts;
 
-    public FastService(FastRepository repo) {
+    public FastService(FastRepository repo, MeterRegistry meterRegistry) {
         this.repo = repo;
+        this.alreadyActiveConflicts = conflictCounter(meterRegistry, "already_active");
+        this.noActiveFastConflicts = conflictCounter(meterRegistry, "no_active_fast");
+    }
+
+    private static Counter conflictCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("fasting.conflicts")
+                .description("Start/stop requests rejected because of the current fasting state")
+                .tag("reason", reason)
+                .register(registry);
     }
 
     public Optional<FastSession> getActive() {
@@ -27,40 +45,53 @@ public class FastService {
         return repo.findFirstByUserAndEndAtIsNullOrderByStartAtDesc(user);
     }
 
+    @Timed(value = "fasting.service", histogram = true)
     public FastSession start() {
         return start(new StartFastRequest(16));
     }
 
+    @Timed(value = "fasting.service", histogram = true)
     public FastSession start(StartFastRequest request) {
         Optional<FastSession> activeSession = getActive();
         if (activeSession.isPresent()) {
+            alreadyActiveConflicts.increment();
             throw new IllegalStateException("Es läuft bereits eine Fasten-Session. Stoppen Sie diese zuerst mit /api/fast/stop");
         }
         Integer goalHours = request.getGoalHours();
         return repo.save(new FastSession(Instant.now(), goalHours));
     }
     
+    @Timed(value = "fasting.service", histogram = true)
     public FastSession start(User user, StartFastRequest request) {
         Optional<FastSession> activeSession = getActive(user);
         if (activeSession.isPresent()) {
+            alreadyActiveConflicts.increment();
             throw new IllegalStateException("Es läuft bereits eine Fasten-Session. Stoppen Sie diese zuerst mit /api/fast/stop");
         }
         Integer goalHours = request.getGoalHours();
         return repo.save(new FastSession(user, Instant.now(), goalHours));
     }
 
+    @Timed(value = "fasting.service", histogram = true)
     public FastSession stop() {
-        FastSession active = getActive().orElseThrow(() -> new IllegalStateException("Kein aktives Fasten"));
+        FastSession active = getActive().orElseThrow(this::noActiveFast);
         active.setEndAt(Instant.now());
         return repo.save(active);
     }
     
+    @Timed(value = "fasting.service", histogram = true)
     public FastSession stop(User user) {
-        FastSession active = getActive(user).orElseThrow(() -> new IllegalStateException("Kein aktives Fasten"));
+        FastSession active = getActive(user).orElseThrow(this::noActiveFast);
         active.setEndAt(Instant.now());
         return repo.save(active);
     }
 
+    private IllegalStateException noActiveFast() {
+        noActiveFastConflicts.increment();
+        return new IllegalStateException("Kein aktives Fasten");
+    }
+
+    @Timed(value = "fasting.service", histogram = true)
     public FastStatusResponse getStatus() {
         Optional<FastSession> activeSession = getActive();
         
@@ -79,6 +110,7 @@ public class FastService {
         return new FastStatusResponse(true, (int) hours, (int) minutes, since, goalHours);
     }
     
+    @Timed(value = "fasting.service", histogram = true)
     public FastStatusResponse getStatus(User user) {
         Optional<FastSession> activeSession = getActive(user);
         
@@ -97,11 +129,36 @@ public class FastService {
         return new FastStatusResponse(true, (int) hours, (int) minutes, since, goalHours);
     }
 
+    @Timed(value = "fasting.service", histogram = true)
     public List<FastSession> history() {
         return repo.findAll();
     }
     
+    @Timed(value = "fasting.service", histogram = true)
     public List<FastSession> history(User user) {
         return repo.findByUserOrderByStartAtDesc(user);
     }
+
+    /**
+     * Sessions inserted, updated and deleted after {@code since} (see V8__fast_session_change_log).
+     * Both reads share one snapshot, so the returned version never skips a change that committed
+     * between them.
+     */
+    @Timed(value = "fasting.service", histogram = true)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public FastSessionChangesResponse changesSince(User user, long since) {
+        long version = since;
+        List<FastSession> inserted = new ArrayList<>();
+        List<FastSession> updated = new ArrayList<>();
+        for (FastSession session : repo.findByUserAndVersionGreaterThanOrderByVersionAsc(user, since)) {
+            (session.getCreatedVersion() > since ? inserted : updated).add(session);
+            version = Math.max(version, session.getVersion());
+        }
+        List<Long> deleted = new ArrayList<>();
+        for (FastRepository.Tombstone tombstone : repo.findTombstones(user.getId(), since)) {
+            deleted.add(tombstone.getSessionId());
+            version = Math.max(version, tombstone.getVersion());
+        }
+        return new FastSessionChangesResponse(version, inserted, updated, deleted);
+    }
 }
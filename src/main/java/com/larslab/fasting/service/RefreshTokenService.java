@@ -3,67 +3,196 @@ package com.larslab.fasting.service;
 import com.larslab.fasting.model.RefreshToken;
 import com.larslab.fasting.model.User;
 import com.larslab.fasting.repo.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Base64;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final byte[] NO_BINDING = new byte[0];
+
     private final RefreshTokenRepository repository;
+    private final boolean postgres;
+    private final Counter reuseDetected;
+    private final Counter graceHits;
+    private final Duration grace;
+    // old token hash -> rotation it produced; lets client retries within the grace window get the same result
+    private final Cache<ByteBuffer, RecentRotation> recentRotations;
 
     @Value("${refresh.jwt.expiration:1209600000}") // 14 days default
     private long refreshExpirationMs;
 
-    public RefreshTokenService(RefreshTokenRepository repository) {
+    public RefreshTokenService(RefreshTokenRepository repository, EntityManagerFactory entityManagerFactory,
+                               MeterRegistry meterRegistry,
+                               @Value("${refresh.grace.seconds:10}") long graceSeconds,
+                               @Value("${refresh.grace.max-entries:10000}") long graceMaxEntries) {
         this.repository = repository;
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        this.reuseDetected = Counter.builder("refresh.tokens.reuse")
+                .description("Refresh attempts with an already rotated token (family revoked)")
+                .register(meterRegistry);
+        this.graceHits = Counter.builder("refresh.tokens.grace.hits")
+                .description("Duplicate refreshes answered from the grace window cache")
+                .register(meterRegistry);
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.recentRotations = Caffeine.newBuilder()
+                .expireAfterWrite(grace)
+                .maximumSize(graceMaxEntries)
+                .build();
+    }
+
+    private record RecentRotation(Rotation rotation, byte[] successorHash, byte[] uaHash, byte[] ipHash) {
+        /** A retry must come with the same bindings as the original refresh. */
+        boolean matches(byte[] ua, byte[] ip) {
+            return MessageDigest.isEqual(uaHash, ua) && MessageDigest.isEqual(ipHash, ip);
+        }
     }
 
+    /** Result of a successful rotation: the owner, its token generation and the new raw refresh token. */
+    public record Rotation(Long userId, String username, int generation, String refreshToken) {}
+
     public String createToken(User user, String userAgent, String ip) {
-        String rawToken = UUID.randomUUID().toString() + ":" + UUID.randomUUID();
-        String hash = hash(rawToken);
-        String uaHash = userAgent != null ? hash(userAgent) : null;
-        String ipHash = ip != null ? hash(ipPrefix(ip)) : null;
-        RefreshToken entity = new RefreshToken(user, hash, Instant.now().plusMillis(refreshExpirationMs), uaHash, ipHash);
+        String rawToken = TokenHashing.newToken();
+        byte[] uaHash = userAgent != null ? TokenHashing.sha256(userAgent) : null;
+        byte[] ipHash = ip != null ? TokenHashing.sha256(ipPrefix(ip)) : null;
+        RefreshToken entity = new RefreshToken(user, TokenHashing.sha256(rawToken),
+                Instant.now().plusMillis(refreshExpirationMs), uaHash, ipHash);
+        entity.setGeneration(user.getTokenGeneration());
         repository.save(entity);
         return rawToken; // return raw (client stores), server only keeps hash
     }
 
     public Optional<RefreshToken> validate(String rawToken, String userAgent, String ip) {
-        String hash = hash(rawToken);
-        Optional<RefreshToken> tokenOpt = repository.findByTokenHash(hash);
+        Optional<RefreshToken> tokenOpt = repository.findByTokenHash(TokenHashing.sha256(rawToken));
         if (tokenOpt.isEmpty()) return Optional.empty();
         RefreshToken token = tokenOpt.get();
         if (token.isRevoked() || token.getExpiresAt().isBefore(Instant.now())) return Optional.empty();
-        if (token.getUserAgentHash() != null && userAgent != null && !token.getUserAgentHash().equals(hash(userAgent))) return Optional.empty();
-        if (token.getIpHash() != null && ip != null && !token.getIpHash().equals(hash(ipPrefix(ip)))) return Optional.empty();
+        if (token.getGeneration() != token.getUser().getTokenGeneration()) return Optional.empty();
+        if (token.getUserAgentHash() != null && userAgent != null && !MessageDigest.isEqual(token.getUserAgentHash(), TokenHashing.sha256(userAgent))) return Optional.empty();
+        if (token.getIpHash() != null && ip != null && !MessageDigest.isEqual(token.getIpHash(), TokenHashing.sha256(ipPrefix(ip)))) return Optional.empty();
         return Optional.of(token);
     }
 
     public void revoke(RefreshToken token) {
         token.setRevoked(true);
         repository.save(token);
+        // a retry of the predecessor must not hand the revoked successor out again (logout is rare; scan is fine)
+        recentRotations.asMap().values()
+                .removeIf(recent -> MessageDigest.isEqual(recent.successorHash(), token.getTokenHash()));
+    }
+
+    /** Drops the user's grace-window entries after a logout-all, so retries cannot resurrect a session. */
+    public void forgetRecentRotations(String username) {
+        recentRotations.asMap().values()
+                .removeIf(recent -> recent.rotation().username().equals(username));
+    }
+
+    /**
+     * Validates, revokes and replaces a refresh token atomically. Tokens issued before the
+     * owner's last logout-all (older generation) are rejected. On PostgreSQL this is one
+     * writable-CTE round trip; elsewhere a compare-and-set UPDATE plus INSERT in one
+     * transaction. Exactly one of two concurrent rotations of the same token wins.
+     *
+     * Retries of an already rotated token within {@code refresh.grace.seconds} (same UA/IP)
+     * get the same rotation back from memory without touching the database. Outside the
+     * window, a rotated token showing up again means it was copied and its whole family
+     * is revoked.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken, String userAgent, String ip) {
+        byte[] oldHash = TokenHashing.sha256(rawToken);
+        // a binding the request does not provide is not checked; an empty array keeps the bind typed
+        boolean uaCheck = userAgent != null;
+        boolean ipCheck = ip != null;
+        byte[] uaHash = uaCheck ? TokenHashing.sha256(userAgent) : NO_BINDING;
+        byte[] ipHash = ipCheck ? TokenHashing.sha256(ipPrefix(ip)) : NO_BINDING;
+        ByteBuffer key = ByteBuffer.wrap(oldHash);
+        Optional<Rotation> recent = recentRotation(key, uaHash, ipHash);
+        if (recent.isPresent()) {
+            return recent;
+        }
+        String newRaw = TokenHashing.newToken();
+        byte[] newHash = TokenHashing.sha256(newRaw);
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(refreshExpirationMs);
+
+        Optional<Rotation> rotation = postgres
+                ? repository.rotateAtomically(oldHash, newHash, uaCheck, uaHash, ipCheck, ipHash, now, expiresAt)
+                        .map(r -> new Rotation(r.getUserId(), r.getUsername(), r.getGeneration(), newRaw))
+                : rotatePortable(oldHash, newRaw, newHash, uaCheck, uaHash, ipCheck, ipHash, now, expiresAt);
+
+        if (rotation.isPresent()) {
+            rememberAfterCommit(key, new RecentRotation(rotation.get(), newHash, uaHash, ipHash));
+            return rotation;
+        }
+        // lost a race against a concurrent duplicate whose rotation has just committed
+        recent = recentRotation(key, uaHash, ipHash);
+        if (recent.isPresent()) {
+            return recent;
+        }
+        // families that rotated within the grace window are spared (duplicate still in flight)
+        int revoked = repository.revokeFamilyOfRevoked(oldHash, now.minus(grace));
+        if (revoked > 0) {
+            reuseDetected.increment();
+            log.warn("Refresh token reuse detected; revoked {} active token(s) of the family", revoked);
+        }
+        return rotation;
+    }
+
+    private Optional<Rotation> recentRotation(ByteBuffer key, byte[] uaHash, byte[] ipHash) {
+        RecentRotation recent = recentRotations.getIfPresent(key);
+        if (recent == null || !recent.matches(uaHash, ipHash)) {
+            return Optional.empty();
+        }
+        graceHits.increment();
+        return Optional.of(recent.rotation());
     }
 
-    public void rotate(RefreshToken oldToken, String userAgent, String ip) {
-        revoke(oldToken);
+    private void rememberAfterCommit(ByteBuffer key, RecentRotation recent) {
+        // only hand out rotations that are durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentRotations.put(key, recent);
+            }
+        });
     }
 
-    private String hash(String value) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashed = digest.digest(value.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
+    private Optional<Rotation> rotatePortable(byte[] oldHash, String newRaw, byte[] newHash,
+                                              boolean uaCheck, byte[] uaHash, boolean ipCheck, byte[] ipHash,
+                                              Instant now, Instant expiresAt) {
+        if (repository.revokeIfActive(oldHash, uaCheck, uaHash, ipCheck, ipHash, now) == 0) {
+            return Optional.empty();
         }
+        RefreshToken old = repository.findByTokenHash(oldHash).orElseThrow();
+        RefreshToken successor = new RefreshToken(old.getUser(), newHash, expiresAt,
+                uaCheck ? uaHash : null, ipCheck ? ipHash : null);
+        successor.setFamilyId(old.getFamilyId());
+        successor.setGeneration(old.getGeneration());
+        repository.save(successor);
+        User user = old.getUser();
+        return Optional.of(new Rotation(user.getId(), user.getUsername(), old.getGeneration(), newRaw));
     }
 
     private String ipPrefix(String ip) {
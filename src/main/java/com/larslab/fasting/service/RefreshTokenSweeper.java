@@ -0,0 +1,91 @@
+package com.larslab.fasting.service;
+
+import com.larslab.fasting.repo.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Background purge of expired and revoked refresh tokens.
+ *
+ * Deletes in batches of {@code refresh.purge.batch-size} until a batch comes back short
+ * (or {@code refresh.purge.max-batches} is reached), each batch in its own short
+ * transaction with {@code FOR UPDATE SKIP LOCKED}. Revoked tokens are kept for
+ * {@code refresh.purge.revoked-retention-hours} so reuse of a rotated token can still be
+ * recognised. With the partitioned layout from {@code sql/manual} installed, the run also
+ * creates upcoming monthly partitions and drops the ones past retention.
+ */
+@Component
+@ConditionalOnProperty(name = "refresh.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenSweeper.class);
+
+    private final RefreshTokenRepository repository;
+    private final Counter purged;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration revokedRetention;
+    private final int partitionMonthsAhead;
+    private final int partitionRetainMonths;
+
+    public RefreshTokenSweeper(RefreshTokenRepository repository,
+                               MeterRegistry meterRegistry,
+                               @Value("${refresh.purge.batch-size:1000}") int batchSize,
+                               @Value("${refresh.purge.max-batches:100}") int maxBatches,
+                               @Value("${refresh.purge.revoked-retention-hours:24}") long revokedRetentionHours,
+                               @Value("${refresh.purge.partition.months-ahead:2}") int partitionMonthsAhead,
+                               @Value("${refresh.purge.partition.retain-months:1}") int partitionRetainMonths) {
+        this.repository = repository;
+        this.purged = Counter.builder("refresh.tokens.purged")
+                .description("Refresh tokens deleted by the sweeper")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.revokedRetention = Duration.ofHours(revokedRetentionHours);
+        this.partitionMonthsAhead = partitionMonthsAhead;
+        this.partitionRetainMonths = partitionRetainMonths;
+    }
+
+    @Scheduled(initialDelayString = "${refresh.purge.initial-delay-ms:60000}",
+               fixedDelayString = "${refresh.purge.interval-ms:3600000}")
+    public void sweep() {
+        try {
+            long deleted = purge(Instant.now());
+            if (deleted > 0) {
+                log.info("Purged {} expired/revoked refresh tokens", deleted);
+            }
+            if (repository.isPartitioned()) {
+                int dropped = repository.maintainPartitions(partitionMonthsAhead, partitionRetainMonths);
+                if (dropped > 0) {
+                    log.info("Dropped {} refresh_token partition(s) past retention", dropped);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Refresh token sweep failed: {}", e.getMessage());
+        }
+    }
+
+    long purge(Instant now) {
+        Instant revokedCutoff = now.minus(revokedRetention);
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = repository.purgeBatch(now, revokedCutoff, batchSize);
+            total += deleted;
+            purged.increment(deleted);
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,81 @@
+package com.larslab.fasting.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Refresh token minting and SHA-256 hashing without per-call provider lookups.
+ *
+ * Digests, random generators and the ASCII scratch buffer are per thread, so the hot
+ * path allocates only the 32-byte result. Each thread gets its own DRBG instance instead
+ * of sharing the single, lock-guarded generator behind {@code UUID.randomUUID()}.
+ */
+final class TokenHashing {
+
+    static final int HASH_BYTES = 32;
+    static final int TOKEN_BYTES = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    });
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenHashing() {}
+
+    /** 256 random bits, base64url without padding (43 chars). */
+    static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.get().nextBytes(bytes);
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    /** SHA-256 of the UTF-8 encoding of {@code value}. */
+    static byte[] sha256(String value) {
+        MessageDigest digest = SHA256.get();
+        int length = value.length();
+        byte[] scratch = SCRATCH.get();
+        if (length <= scratch.length && isAscii(value, scratch)) {
+            // tokens and nearly all user agents / IPs are ASCII: encode into the reusable buffer
+            digest.update(scratch, 0, length);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] result = new byte[HASH_BYTES];
+        try {
+            digest.digest(result, 0, HASH_BYTES);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    private static boolean isAscii(String value, byte[] target) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            target[i] = (byte) c;
+        }
+        return true;
+    }
+}
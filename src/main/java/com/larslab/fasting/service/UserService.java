@@ -6,6 +6,7 @@ import com.larslab.fasting.repo.UserRepository;
 import com.larslab.fasting.dto.LoginOrCreateRequest;
 import com.larslab.fasting.dto.UpdatePreferencesRequest;
 import com.larslab.fasting.dto.UpdateLanguageRequest;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
@@ -23,6 +24,7 @@ public class UserService {
     /**
      * Login or create user - handles single field that can be username or email
      */
+    @Timed(value = "user.service", histogram = true)
     public User loginOrCreateUser(LoginOrCreateRequest request) {
         // Validate that identifier is provided
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
@@ -115,6 +117,7 @@ public class UserService {
     /**
      * Get user by identifier (username or email)
      */
+    @Timed(value = "user.service", histogram = true)
     public Optional<User> getUserByIdentifier(String identifier) {
         if (identifier == null || identifier.trim().isEmpty()) {
             return Optional.empty();
@@ -0,0 +1,59 @@
+package com.larslab.fasting.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request latency during the first minute after readiness, as a separate timer
+ * ({@code http.server.requests.first_minute}, p50/p99 published, tag {@code warmup=on|off}).
+ * Fed by {@code RequestTimingFilter}; the window opens once the hot path (and the optional
+ * {@link JitWarmup}) is done, so deploys with and without warm-up compare directly.
+ */
+@Component
+public class FirstMinuteLatency {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Timer timer;
+    private volatile long windowStart;
+    private volatile boolean open;
+
+    public FirstMinuteLatency(@Value("${startup.warmup.enabled:false}") boolean warmup,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.timer = registry == null ? null : Timer.builder("http.server.requests.first_minute")
+                .description("Request latency in the first minute after the application became ready")
+                .tag("warmup", warmup ? "on" : "off")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    // after HotPathHealthIndicator, which runs the warm-up
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void openWindow() {
+        windowStart = System.nanoTime();
+        open = true;
+    }
+
+    public void record(long nanos) {
+        if (!open || timer == null) {
+            return;
+        }
+        if (System.nanoTime() - windowStart > WINDOW_NANOS) {
+            open = false;
+            return;
+        }
+        timer.record(Duration.ofNanos(nanos));
+    }
+}
@@ -0,0 +1,97 @@
+package com.larslab.fasting.startup;
+
+import com.larslab.fasting.controller.FastController;
+import com.larslab.fasting.repo.FastRepository;
+import com.larslab.fasting.repo.UserRepository;
+import com.larslab.fasting.security.JwtAuthenticationFilter;
+import com.larslab.fasting.security.JwtService;
+import com.larslab.fasting.security.TokenRevocationIndex;
+import com.larslab.fasting.security.UserAuthorizationService;
+import com.larslab.fasting.service.FastService;
+import com.larslab.fasting.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Health contributor "hotPath" (part of the readiness group): DOWN until the beans behind
+ * {@code /api/fast/*} are instantiated (repositories may be lazy or deferred, see
+ * {@code spring.data.jpa.repositories.bootstrap-mode}) and every startup task registered via
+ * {@link #awaitBeforeReady} has finished, e.g. the asynchronous Flyway validation. With
+ * {@code startup.warmup.enabled=true} the {@link JitWarmup} runs after that, still before UP.
+ *
+ * Resolved once on {@link ApplicationReadyEvent}; a failed task keeps readiness DOWN with the
+ * error as detail, liveness is not affected.
+ */
+@Component
+public class HotPathHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(HotPathHealthIndicator.class);
+
+    static final List<Class<?>> HOT_PATH = List.of(
+        FastController.class, FastService.class, UserService.class, FastRepository.class, UserRepository.class,
+        UserAuthorizationService.class, JwtService.class, JwtAuthenticationFilter.class, TokenRevocationIndex.class);
+
+    private final ApplicationContext context;
+    // looked up late: this indicator is needed by the Flyway strategy, before JPA exists
+    private final ObjectProvider<JitWarmup> warmup;
+    private final Map<String, CompletableFuture<?>> tasks = new ConcurrentHashMap<>();
+    private volatile Health health = Health.down().withDetail("phase", "starting").build();
+
+    public HotPathHealthIndicator(ApplicationContext context, ObjectProvider<JitWarmup> warmup) {
+        this.context = context;
+        this.warmup = warmup;
+    }
+
+    /** Readiness additionally waits for {@code task}; call before the application is ready. */
+    public void awaitBeforeReady(String name, CompletableFuture<?> task) {
+        tasks.put(name, task);
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void resolveHotPath() {
+        long start = System.nanoTime();
+        try {
+            for (Class<?> type : HOT_PATH) {
+                context.getBean(type);
+            }
+            for (Map.Entry<String, CompletableFuture<?>> task : tasks.entrySet()) {
+                try {
+                    task.getValue().join();
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("startup task '" + task.getKey() + "' failed", e.getCause() != null ? e.getCause() : e);
+                }
+            }
+            health = Health.down().withDetail("phase", "warmup").build();
+        } catch (RuntimeException e) {
+            log.error("Hot path not ready: {}", e.getMessage(), e);
+            health = Health.down(e).withDetail("phase", "failed").build();
+            return;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        JitWarmup jitWarmup = warmup.getIfAvailable();
+        long warmupMs = jitWarmup != null ? jitWarmup.run() : 0;
+        health = Health.up().withDetail("resolveMs", millis).withDetail("warmupMs", warmupMs)
+                .withDetail("tasks", tasks.keySet()).build();
+        log.info("Hot path ready ({} beans, tasks {}) after {} ms", HOT_PATH.size(), tasks.keySet(), millis);
+    }
+}
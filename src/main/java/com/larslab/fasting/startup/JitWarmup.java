@@ -0,0 +1,168 @@
+package com.larslab.fasting.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.larslab.fasting.config.FeatureFlags;
+import com.larslab.fasting.dto.FastStatusResponse;
+import com.larslab.fasting.dto.UserResponse;
+import com.larslab.fasting.model.FastSession;
+import com.larslab.fasting.model.User;
+import com.larslab.fasting.repo.FastRepository;
+import com.larslab.fasting.repo.UserRepository;
+import com.larslab.fasting.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional warm-up ({@code startup.warmup.enabled=true}) run by {@link HotPathHealthIndicator}
+ * before readiness reports UP: drives the JWT sign/parse path, Jackson serialization of
+ * {@code FastSession} lists, {@code UserResponse} and {@code FastStatusResponse} on synthetic
+ * in-memory objects, and the hot-path repository queries inside a read-only transaction for a
+ * user that does not exist, so the JIT compiles them and Hibernate caches the query plans
+ * before real traffic arrives.
+ *
+ * Each phase is recorded in the {@code startup.warmup} timer (tag {@code phase}); compare
+ * {@code http.server.requests.first_minute} across deploys with and without warm-up for the
+ * effect on p99.
+ */
+@Component
+public class JitWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+    private static final String USER = "warmup.invalid";
+
+    private final boolean enabled;
+    private final int iterations;
+    private final int dbIterations;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final FastRepository fastRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final FeatureFlags featureFlags;
+    private final MeterRegistry meterRegistry;
+
+    public JitWarmup(@Value("${startup.warmup.enabled:false}") boolean enabled,
+                     @Value("${startup.warmup.iterations:2000}") int iterations,
+                     @Value("${startup.warmup.db-iterations:50}") int dbIterations,
+                     JwtService jwtService,
+                     ObjectMapper objectMapper,
+                     FastRepository fastRepository,
+                     UserRepository userRepository,
+                     PlatformTransactionManager transactionManager,
+                     FeatureFlags featureFlags,
+                     ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.dbIterations = dbIterations;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.fastRepository = fastRepository;
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.featureFlags = featureFlags;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Runs all phases; returns the total time in milliseconds (0 when disabled). */
+    public long run() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        phase("jwt", this::jwt);
+        phase("json", this::json);
+        phase("db", this::db);
+        long total = System.nanoTime() - start;
+        record("total", total);
+        log.info("JIT warm-up finished in {} ms ({} iterations, {} DB probes)", total / 1_000_000, iterations, dbIterations);
+        return total / 1_000_000;
+    }
+
+    private void jwt() {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            // same calls as JwtAuthenticationFilter
+            Claims claims = jwtService.parseClaims(jwtService.generateAccessToken(USER, i & 7));
+            if (jwtService.isTokenValid(claims, USER)) {
+                sink += jwtService.extractGeneration(claims);
+            }
+        }
+        log.debug("jwt warm-up checksum {}", sink);
+    }
+
+    private void json() throws Exception {
+        User user = new User(USER, USER + "@example.invalid");
+        user.setId(0L);
+        Instant now = Instant.now();
+        List<FastSession> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(new FastSession(now.minus(Duration.ofHours(24L * i + 16)), now.minus(Duration.ofHours(24L * i))));
+        }
+        FastStatusResponse status = new FastStatusResponse(true, 12, 30, now.toString(), 16);
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            bytes += objectMapper.writeValueAsBytes(history).length;
+            bytes += objectMapper.writeValueAsBytes(new UserResponse(user, featureFlags)).length;
+            bytes += objectMapper.writeValueAsBytes(status).length;
+        }
+        log.debug("json warm-up wrote {} bytes", bytes);
+    }
+
+    private void db() {
+        User absent = new User(USER, USER + "@example.invalid");
+        absent.setId(-1L);
+        for (int i = 0; i < dbIterations; i++) {
+            readOnly.executeWithoutResult(tx -> {
+                userRepository.findByUsernameOrEmail(USER, USER);
+                userRepository.findTokenGenerationByUsername(USER);
+                fastRepository.findFirstByUserAndEndAtIsNullOrderByStartAtDesc(absent);
+                fastRepository.findByUserOrderByStartAtDesc(absent);
+                tx.setRollbackOnly();
+            });
+        }
+    }
+
+    private void phase(String name, ThrowingRunnable body) {
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (Exception e) {
+            // warm-up is best effort; readiness must not depend on it
+            log.warn("JIT warm-up phase '{}' failed: {}", name, e.toString());
+        }
+        record(name, System.nanoTime() - start);
+    }
+
+    private void record(String phase, long nanos) {
+        if (meterRegistry != null) {
+            Timer.builder("startup.warmup")
+                    .description("Duration of the JIT warm-up before readiness")
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(nanos));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
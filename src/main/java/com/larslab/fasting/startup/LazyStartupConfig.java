@@ -0,0 +1,60 @@
+package com.larslab.fasting.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * With {@code startup.lazy=true}, beans declared by classes under the {@code startup.deferred}
+ * prefixes (springdoc and {@code OpenApiConfig} by default) are created on first use instead of
+ * during context refresh. Spring MVC resolves lazy controllers per request, so the Swagger UI
+ * and the runtime OpenAPI generator come up on the first call to them.
+ *
+ * Beans that their infrastructure instantiates anyway (servlet filters, bean post processors,
+ * actuator endpoints, {@code @Scheduled} holders) are unaffected by the flag. Under AOT
+ * ({@code -Pfast-startup}) the lazy flags are fixed when the build runs.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyStartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyStartupConfig.class);
+
+    @Bean
+    static BeanFactoryPostProcessor deferNonCriticalBeans(Environment environment) {
+        boolean lazy = environment.getProperty("startup.lazy", Boolean.class, false);
+        List<String> prefixes = List.of(environment.getProperty("startup.deferred", String[].class, new String[0]));
+        return beanFactory -> {
+            if (!lazy || prefixes.isEmpty()) {
+                return;
+            }
+            int deferred = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                    continue;
+                }
+                String declaringClass = declaringClass(definition);
+                if (declaringClass != null && prefixes.stream().anyMatch(declaringClass::startsWith)) {
+                    definition.setLazyInit(true);
+                    deferred++;
+                }
+            }
+            log.info("startup.lazy: {} beans deferred until first use ({})", deferred, prefixes);
+        };
+    }
+
+    // @Bean methods count for the class that declares them, component classes for themselves
+    static String declaringClass(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
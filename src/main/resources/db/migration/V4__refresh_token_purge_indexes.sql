@@ -0,0 +1,4 @@
+-- V4 Indexes backing the refresh token sweeper (RefreshTokenSweeper)
+-- expired rows: range scan on expires_at; revoked rows: small partial index
+CREATE INDEX IF NOT EXISTS idx_refresh_token_expires_at ON refresh_token(expires_at);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_revoked_created ON refresh_token(created_at) WHERE revoked;
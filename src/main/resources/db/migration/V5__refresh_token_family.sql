@@ -0,0 +1,5 @@
+-- V5 Refresh token families: every rotation inherits family_id from the token it replaces,
+-- so reuse of an already rotated token can revoke the whole chain in one statement.
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS family_id UUID NOT NULL DEFAULT gen_random_uuid();
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family_active ON refresh_token(family_id) WHERE NOT revoked;
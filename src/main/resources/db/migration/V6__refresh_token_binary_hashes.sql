@@ -0,0 +1,7 @@
+-- V6 Store SHA-256 hashes as raw 32-byte BYTEA instead of base64url text (43 chars).
+-- Existing rows are decoded in place (base64url -> base64, re-add the single '=' padding),
+-- so tokens issued before this migration stay valid.
+ALTER TABLE refresh_token
+  ALTER COLUMN token_hash TYPE BYTEA USING decode(translate(token_hash, '-_', '+/') || '=', 'base64'),
+  ALTER COLUMN user_agent_hash TYPE BYTEA USING decode(translate(user_agent_hash, '-_', '+/') || '=', 'base64'),
+  ALTER COLUMN ip_hash TYPE BYTEA USING decode(translate(ip_hash, '-_', '+/') || '=', 'base64');
@@ -0,0 +1,6 @@
+-- V7 Per-user token generation for "log out everywhere": bumping users.token_generation
+-- invalidates every access token (claim "gen") and every refresh token issued under an
+-- older generation, in a single row update.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_generation INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS generation INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,96 @@
+-- V8 Per-user change log for offline sync (GET /api/fast/user/{identifier}/changes?since=).
+-- Every insert/update of a fast_session takes the next value of the owner's counter
+-- users.fast_session_version; deletes leave a tombstone with their own version. The counter
+-- row is locked by the UPDATE, so one user's versions become visible in commit order and a
+-- client that has seen version n never misses a later commit with a lower number.
+-- Versions are assigned by trigger, so every write path (JPA, JDBC batches, manual SQL,
+-- backdated edits) is covered.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS fast_session_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE fast_session ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE fast_session ADD COLUMN IF NOT EXISTS created_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS fast_session_tombstone (
+  user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  version BIGINT NOT NULL,
+  session_id BIGINT NOT NULL,
+  deleted_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (user_id, version)
+);
+
+-- Existing sessions: versions 1..n per user in insertion order
+UPDATE fast_session fs
+   SET version = v.rn, created_version = v.rn
+  FROM (SELECT id, row_number() OVER (PARTITION BY user_id ORDER BY id) AS rn
+          FROM fast_session WHERE user_id IS NOT NULL) v
+ WHERE fs.id = v.id;
+
+UPDATE users u
+   SET fast_session_version = COALESCE((SELECT max(version) FROM fast_session WHERE user_id = u.id), 0);
+
+CREATE INDEX IF NOT EXISTS idx_fast_session_user_version ON fast_session(user_id, version);
+
+CREATE OR REPLACE FUNCTION fast_session_next_version() RETURNS trigger AS $$
+DECLARE
+  next_version BIGINT;
+  moved BOOLEAN;
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    UPDATE users SET fast_session_version = fast_session_version + 1
+     WHERE id = OLD.user_id
+     RETURNING fast_session_version INTO next_version;
+    -- no counter row: the session goes away together with its user (ON DELETE CASCADE)
+    IF next_version IS NOT NULL THEN
+      INSERT INTO fast_session_tombstone(user_id, version, session_id) VALUES (OLD.user_id, next_version, OLD.id);
+    END IF;
+    RETURN OLD;
+  END IF;
+  moved := false;
+  IF TG_OP = 'UPDATE' THEN
+    moved := OLD.user_id IS DISTINCT FROM NEW.user_id;
+  END IF;
+  -- moved to another user: for the previous owner the session is gone
+  IF moved THEN
+    UPDATE users SET fast_session_version = fast_session_version + 1
+     WHERE id = OLD.user_id
+     RETURNING fast_session_version INTO next_version;
+    IF next_version IS NOT NULL THEN
+      INSERT INTO fast_session_tombstone(user_id, version, session_id) VALUES (OLD.user_id, next_version, OLD.id);
+    END IF;
+  END IF;
+  IF NEW.user_id IS NOT NULL THEN
+    UPDATE users SET fast_session_version = fast_session_version + 1
+     WHERE id = NEW.user_id
+     RETURNING fast_session_version INTO next_version;
+    NEW.version := next_version;
+    -- for a new owner the session counts as inserted
+    IF TG_OP = 'INSERT' OR moved THEN
+      NEW.created_version := next_version;
+    END IF;
+  END IF;
+  RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_fast_session_version_insert ON fast_session;
+CREATE TRIGGER trg_fast_session_version_insert
+  BEFORE INSERT ON fast_session
+  FOR EACH ROW EXECUTE FUNCTION fast_session_next_version();
+
+-- unchanged rows (e.g. a no-op UPDATE) keep their version
+DROP TRIGGER IF EXISTS trg_fast_session_version_update ON fast_session;
+CREATE TRIGGER trg_fast_session_version_update
+  BEFORE UPDATE ON fast_session
+  FOR EACH ROW
+  WHEN (OLD.start_at IS DISTINCT FROM NEW.start_at OR OLD.end_at IS DISTINCT FROM NEW.end_at
+        OR OLD.goal_hours IS DISTINCT FROM NEW.goal_hours OR OLD.user_id IS DISTINCT FROM NEW.user_id)
+  EXECUTE FUNCTION fast_session_next_version();
+
+DROP TRIGGER IF EXISTS trg_fast_session_version_delete ON fast_session;
+CREATE TRIGGER trg_fast_session_version_delete
+  AFTER DELETE ON fast_session
+  FOR EACH ROW EXECUTE FUNCTION fast_session_next_version();
+
+COMMENT ON COLUMN fast_session.version IS 'Owner-scoped change version of the last insert/update (users.fast_session_version)';
+COMMENT ON COLUMN fast_session.created_version IS 'Owner-scoped change version of the insert';
+COMMENT ON TABLE fast_session_tombstone IS 'Deleted fast sessions with their change version, for delta sync';
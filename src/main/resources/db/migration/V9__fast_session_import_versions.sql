@@ -0,0 +1,16 @@
+-- V9 Bulk imports reserve change versions per batch instead of per row.
+-- The V8 insert trigger updates users.fast_session_version once per inserted row, so a
+-- 100k-row import performed 100k updates of the same (already locked) users row - one dead
+-- tuple each - and the batched inserts paid for a PL/pgSQL call and a row update per row.
+-- FastImportService now advances the counter once per batch (UPDATE ... RETURNING), inserts
+-- the rows with the reserved versions and marks its transaction with
+--   SELECT set_config('fasting.versions_assigned', 'on', true)
+-- For such rows (version > 0 in a marked transaction) the trigger does not fire at all.
+-- The setting is transaction-local; every other write path is versioned by the trigger as
+-- before. Ordering is unchanged: the counter row stays locked until commit.
+DROP TRIGGER IF EXISTS trg_fast_session_version_insert ON fast_session;
+CREATE TRIGGER trg_fast_session_version_insert
+  BEFORE INSERT ON fast_session
+  FOR EACH ROW
+  WHEN (NEW.version = 0 OR current_setting('fasting.versions_assigned', true) IS DISTINCT FROM 'on')
+  EXECUTE FUNCTION fast_session_next_version();
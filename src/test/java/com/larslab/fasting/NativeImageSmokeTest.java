@@ -0,0 +1,111 @@
+package com.larslab.fasting;
+
+import com.larslab.fasting.support.TestPostgresContainer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the native executable built by {@code mvn -Pnative verify} against the Testcontainers
+ * database and drives the paths that depend on reflection/resource hints: Flyway migrations,
+ * JPA entities, JSON bodies, JWT signing and parsing.
+ *
+ * Tagged "native": excluded from the normal build, run by the native profile's
+ * {@code native-smoke} execution after the image is built.
+ */
+@Tag("native")
+class NativeImageSmokeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeImageSmokeTest.class);
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private static Process process;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        Path binary = Path.of(System.getProperty("native.image", "target/fasting-service"));
+        assumeTrue(Files.isExecutable(binary), "native image not built: " + binary);
+
+        var db = TestPostgresContainer.INSTANCE;
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+        ProcessBuilder builder = new ProcessBuilder(binary.toString(),
+            "--spring.profiles.active=prod",
+            "--server.port=" + port,
+            "--db.sslmode=disable")
+            .redirectErrorStream(true)
+            .redirectOutput(Path.of("target", "native-smoke.log").toFile());
+        builder.environment().put("DATABASE_URL", "postgresql://" + db.getUsername() + ":" + db.getPassword()
+            + "@" + db.getHost() + ":" + db.getMappedPort(5432) + "/" + db.getDatabaseName());
+        builder.environment().put("JWT_SECRET", "NATIVE_SMOKE_TEST_SECRET_1234567890abcdef");
+        long start = System.nanoTime();
+        process = builder.start();
+        awaitHealthy(Duration.ofSeconds(30));
+        log.info("native image healthy after {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @AfterAll
+    static void stopBinary() {
+        if (process != null) {
+            process.destroy();
+        }
+    }
+
+    @Test
+    void loginIssuesTokensThatAuthenticate() throws Exception {
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/login-or-create"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"native\",\"email\":\"native@example.com\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(login.statusCode()).isEqualTo(200);
+        assertThat(login.body()).contains("\"accessToken\"");
+
+        String token = login.body().replaceAll(".*\"accessToken\":\"([^\"]+)\".*", "$1");
+        HttpResponse<String> user = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/find/native"))
+            .header("Authorization", "Bearer " + token)
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(user.statusCode()).isEqualTo(200);
+        assertThat(user.body()).contains("\"username\":\"native\"");
+    }
+
+    private static void awaitHealthy(Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("native image exited, see target/native-smoke.log").isTrue();
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notYetListening) {
+                // retry
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("native image not healthy within " + timeout);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -13,9 +13,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -74,4 +76,82 @@ class AuthFlowIntegrationTest extends AbstractIntegrationTest {
                 .content(refreshPayload))
             .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    void duplicate_refresh_within_grace_window_returns_same_successor() throws Exception {
+        String loginPayload = objectMapper.writeValueAsString(Map.of("username", "graceuser1", "email", "graceuser1@example.com"));
+        String loginResponse = mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginPayload))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String first = (String) objectMapper.readValue(loginResponse, Map.class).get("refreshToken");
+        String refreshPayload = objectMapper.writeValueAsString(Map.of("refreshToken", first));
+
+        String refreshResponse = mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshPayload))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String second = (String) objectMapper.readValue(refreshResponse, Map.class).get("refreshToken");
+
+        // Client retry (lost response) gets the same successor instead of a 401 ...
+        String retryResponse = mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshPayload))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(retryResponse, Map.class).get("refreshToken")).isEqualTo(second);
+
+        // ... and the successor stays usable
+        mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", second))))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void logout_all_invalidates_access_and_refresh_tokens_of_every_device() throws Exception {
+        String loginPayload = objectMapper.writeValueAsString(Map.of("username", "logoutall1", "email", "logoutall1@example.com"));
+        Map<?,?> deviceA = objectMapper.readValue(mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginPayload))
+            .andReturn().getResponse().getContentAsString(), Map.class);
+        Map<?,?> deviceB = objectMapper.readValue(mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginPayload))
+            .andReturn().getResponse().getContentAsString(), Map.class);
+        String accessA = (String) deviceA.get("accessToken");
+
+        mockMvc.perform(get("/api/users/find/logoutall1").header("Authorization", "Bearer " + accessA))
+            .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(post("/api/users/logout-all").header("Authorization", "Bearer " + accessA))
+            .andExpect(status().isOk());
+
+        // access tokens are rejected right away ...
+        mockMvc.perform(get("/api/users/find/logoutall1").header("Authorization", "Bearer " + accessA))
+            .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/users/find/logoutall1").header("Authorization", "Bearer " + deviceB.get("accessToken")))
+            .andExpect(status().is4xxClientError());
+        // ... and so are the refresh tokens of both devices
+        for (Map<?,?> device : List.of(deviceA, deviceB)) {
+            mockMvc.perform(post("/api/users/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("refreshToken", device.get("refreshToken")))))
+                .andExpect(status().isUnauthorized());
+        }
+
+        // a fresh login starts the next generation
+        Map<?,?> relogin = objectMapper.readValue(mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginPayload))
+            .andReturn().getResponse().getContentAsString(), Map.class);
+        mockMvc.perform(get("/api/users/find/logoutall1").header("Authorization", "Bearer " + relogin.get("accessToken")))
+            .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", relogin.get("refreshToken")))))
+            .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,64 @@
+package com.larslab.fasting.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.larslab.fasting.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reuse detection with the refresh grace window switched off, so an immediate replay of a
+ * rotated token counts as theft.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "refresh.grace.seconds=0")
+class RefreshTokenReuseIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void reuse_of_rotated_refresh_token_revokes_family() throws Exception {
+        String loginPayload = objectMapper.writeValueAsString(Map.of("username", "reuseuser1", "email", "reuseuser1@example.com"));
+        String loginResponse = mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginPayload))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String first = (String) objectMapper.readValue(loginResponse, Map.class).get("refreshToken");
+
+        // Legitimate rotation
+        String refreshResponse = mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", first))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String second = (String) objectMapper.readValue(refreshResponse, Map.class).get("refreshToken");
+
+        // Replay of the rotated token is rejected ...
+        mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", first))))
+            .andExpect(status().isUnauthorized());
+
+        // ... and takes the successor down with it
+        mockMvc.perform(post("/api/users/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", second))))
+            .andExpect(status().isUnauthorized());
+    }
+}
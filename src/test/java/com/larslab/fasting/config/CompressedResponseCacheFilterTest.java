@@ -0,0 +1,120 @@
+package com.larslab.fasting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedResponseCacheFilterTest {
+
+    private static final String BODY = "[" + "{\"id\":1,\"goalHours\":16,\"duration\":\"PT16H\"},".repeat(100) + "{}]";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CompressedResponseCacheFilter filter = new CompressedResponseCacheFilter(true, DataSize.ofKilobytes(1),
+        new String[]{"/api/fast/user/*/history"}, new String[]{"/api/users/login-or-create"},
+        DataSize.ofMegabytes(1), 10, new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class));
+
+    @Test
+    void largeHistory_GzippedOncePerEtagThenServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/api/fast/user/alice/history", null);
+        MockHttpServletResponse second = get("/api/fast/user/alice/history", null);
+
+        assertThat(first.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(first.getContentType()).startsWith("application/json");
+        assertThat(gunzip(first.getContentAsByteArray())).isEqualTo(BODY);
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getHeader("ETag")).isEqualTo(first.getHeader("ETag"));
+        assertThat(registry.get("http.compression.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("http.compression.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void matchingIfNoneMatch_Returns304WithoutBody() throws Exception {
+        String etag = get("/api/fast/user/alice/history", null).getHeader("ETag");
+
+        MockHttpServletResponse revalidated = get("/api/fast/user/alice/history", etag);
+
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void gzipAndIdentityRepresentations_HaveDifferentEtags() throws Exception {
+        MockHttpServletResponse gzipped = get("/api/fast/user/alice/history", null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fast/user/alice/history");
+        MockHttpServletResponse identity = new MockHttpServletResponse();
+        filter.doFilter(request, identity, new MockFilterChain(servlet()));
+
+        assertThat(identity.getHeader("Content-Encoding")).isNull();
+        assertThat(gzipped.getHeader("ETag")).isEqualTo(identity.getHeader("ETag").replaceFirst("\"$", "-gz\""));
+        // the identity ETag does not revalidate the gzip representation
+        assertThat(get("/api/fast/user/alice/history", identity.getHeader("ETag")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void cachedRoutes_MayBeStoredPrivatelyButMustRevalidate() throws Exception {
+        assertThat(get("/api/fast/user/alice/history", null).getHeader("Cache-Control")).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void tokenRoutes_AreMarkedNotToBeCompressed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/login-or-create");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(servlet()));
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("identity");
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void otherRoutes_PassThroughUntouched() throws Exception {
+        MockHttpServletResponse response = get("/api/fast/user/alice/status", null);
+
+        assertThat(response.getHeader("ETag")).isNull();
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(servlet()));
+        return response;
+    }
+
+    private static GenericServlet servlet() {
+        return new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) throws IOException {
+                res.setContentType("application/json");
+                res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    private static String gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
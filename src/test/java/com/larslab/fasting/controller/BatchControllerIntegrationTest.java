@@ -0,0 +1,112 @@
+package com.larslab.fasting.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.larslab.fasting.support.AbstractUserApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Collections;
+
+import static com.larslab.fasting.support.QueryBudget.expectStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+class BatchControllerIntegrationTest extends AbstractUserApiIntegrationTest {
+
+    @Test
+    void queuedOperations_RunInOneRequestWithinQueryBudget() throws Exception {
+        // JWT user + batch user + status + active check + insert + status + active session + update at commit;
+        // the same four operations one by one cost 4 + 5 + 4 + 5 statements
+        String body = """
+            {"operations":[
+              {"clientId":"q1","type":"STATUS"},
+              {"clientId":"q2","type":"START","goalHours":18},
+              {"clientId":"q3","type":"STATUS"},
+              {"clientId":"q4","type":"STOP"}]}""";
+        JsonNode response = read(expectStatements(8, () -> batch(body).andExpect(status().isOk())));
+
+        assertThat(response.get("committed").asBoolean()).isTrue();
+        assertThat(response.get("results")).hasSize(4);
+        assertThat(response.at("/results/0/body/active").asBoolean()).isFalse();
+        assertThat(response.at("/results/1/clientId").asText()).isEqualTo("q2");
+        assertThat(response.at("/results/1/body/goalHours").asInt()).isEqualTo(18);
+        assertThat(response.at("/results/2/body/active").asBoolean()).isTrue();
+        assertThat(response.at("/results/3/body/endAt").isMissingNode()).isFalse();
+        assertThat(response.at("/results/3/status").asInt()).isEqualTo(200);
+    }
+
+    @Test
+    void preferencesOperation_UpdatesTheAuthenticatedUser() throws Exception {
+        batch("""
+            {"operations":[{"type":"PREFERENCES","preferences":{"timezone":"Europe/Vienna"}}]}""")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results[0].body.preferences.timezone").value("Europe/Vienna"));
+    }
+
+    @Test
+    void failingOperation_RollsBackTheWholeBatch() throws Exception {
+        JsonNode response = read(batch("""
+            {"operations":[
+              {"clientId":"a","type":"START"},
+              {"clientId":"b","type":"START"},
+              {"clientId":"c","type":"STATUS"}]}""")
+            .andExpect(status().isBadRequest()));
+
+        assertThat(response.get("committed").asBoolean()).isFalse();
+        assertThat(response.at("/results/0/status").asInt()).isEqualTo(200);
+        assertThat(response.at("/results/1/status").asInt()).isEqualTo(400);
+        assertThat(response.at("/results/1/error").asText()).contains("bereits eine Fasten-Session");
+        assertThat(response.at("/results/2/status").asInt()).isEqualTo(424);
+
+        mockMvc.perform(get("/api/fast/user/{id}/status", username).header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Test
+    void invalidOperation_IsRejectedBeforeAnythingRuns() throws Exception {
+        batch("""
+            {"operations":[{"type":"START","goalHours":49}]}""")
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tooManyOperations_AreRejectedByValidation() throws Exception {
+        String operations = String.join(",", Collections.nCopies(51, "{\"type\":\"STATUS\"}"));
+        // only the JWT user lookup: the batch user is never loaded, no transaction is opened
+        expectStatements(1, () -> batch("{\"operations\":[" + operations + "]}")
+            .andExpect(status().isBadRequest()));
+    }
+
+    @Test
+    void withoutToken_IsRejected() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":[{\"type\":\"STATUS\"}]}"))
+            .andExpect(status().is4xxClientError());
+    }
+
+    private ResultActions batch(String body) throws Exception {
+        return mockMvc.perform(post("/api/batch")
+            .header("Authorization", bearer)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,62 @@
+package com.larslab.fasting.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.larslab.fasting.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+class CborNegotiationIntegrationTest extends AbstractIntegrationTest {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private final CBORMapper cbor = new CBORMapper();
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void cborRequestAndResponse_CarryTheSameDocumentAsJson() throws Exception {
+        byte[] body = cbor.writeValueAsBytes(Map.of("username", "cbor_user", "email", "cbor_user@example.com"));
+        byte[] login = mockMvc.perform(post("/api/users/login-or-create").contentType(CBOR).accept(CBOR).content(body))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+        JsonNode response = cbor.readTree(login);
+        String bearer = "Bearer " + response.get("accessToken").asText();
+
+        byte[] binary = mockMvc.perform(get("/api/users/find/cbor_user").header("Authorization", bearer).accept(CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/users/find/cbor_user").header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(cbor.readTree(binary)).isEqualTo(objectMapper.readTree(json));
+        assertThat(binary.length).isLessThan(json.length());
+    }
+}
@@ -0,0 +1,83 @@
+package com.larslab.fasting.controller;
+
+import com.larslab.fasting.support.AbstractUserApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.larslab.fasting.support.QueryBudget.expectStatements;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the JWT-protected fasting endpoints. Every request currently pays for
+ * the user lookup in the JWT filter, in {@code UserAuthorizationService} and in the
+ * controller itself; the budgets below make any additional statement fail the build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+class FastControllerIntegrationTest extends AbstractUserApiIntegrationTest {
+
+    @Test
+    void status_staysWithinQueryBudget() throws Exception {
+        // JWT user + authorization user + controller user + active session
+        expectStatements(4, () -> mockMvc.perform(get("/api/fast/user/{id}/status", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk()));
+    }
+
+    @Test
+    void history_staysWithinQueryBudget() throws Exception {
+        // JWT user + authorization user + controller user + sessions (no per-session lazy loads)
+        startFast();
+        startAndStop();
+        expectStatements(4, () -> mockMvc.perform(get("/api/fast/user/{id}/history", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk()));
+    }
+
+    @Test
+    void start_staysWithinQueryBudget() throws Exception {
+        // three user lookups + active session check + insert
+        expectStatements(5, this::startFast);
+    }
+
+    @Test
+    void start_whenAlreadyActive_staysWithinQueryBudget() throws Exception {
+        startFast();
+        expectStatements(4, () -> mockMvc.perform(post("/api/fast/user/{id}/start", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isBadRequest()));
+    }
+
+    @Test
+    void stop_staysWithinQueryBudget() throws Exception {
+        startFast();
+        // three user lookups + active session + update
+        expectStatements(5, () -> mockMvc.perform(post("/api/fast/user/{id}/stop", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk()));
+    }
+
+    private Object startFast() throws Exception {
+        return mockMvc.perform(post("/api/fast/user/{id}/start", username)
+                .header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"goalHours\":16}"))
+            .andExpect(status().isOk());
+    }
+
+    private void startAndStop() throws Exception {
+        mockMvc.perform(post("/api/fast/user/{id}/stop", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk());
+        startFast();
+    }
+}
@@ -6,6 +6,7 @@ import com.larslab.fasting.model.User;
 import com.larslab.fasting.service.FastService;
 import com.larslab.fasting.service.UserService;
 import com.larslab.fasting.security.JwtService;
+import com.larslab.fasting.security.TokenRevocationIndex;
 import com.larslab.fasting.security.UserAuthorizationService;
 import com.larslab.fasting.dto.StartFastRequest;
 import com.larslab.fasting.dto.FastStatusResponse;
@@ -52,6 +53,9 @@ class FastControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private TokenRevocationIndex tokenRevocationIndex;
+
     private User testUser;
     private FastSession activeSession;
     private FastSession completedSession;
@@ -0,0 +1,218 @@
+package com.larslab.fasting.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.larslab.fasting.dto.FastImportEvent;
+import com.larslab.fasting.model.User;
+import com.larslab.fasting.service.FastImportService;
+import com.larslab.fasting.service.UserService;
+import com.larslab.fasting.support.AbstractUserApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+@TestPropertySource(properties = "fast.import.batch-size=2")
+class FastImportIntegrationTest extends AbstractUserApiIntegrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    FastImportService importService;
+    @Autowired
+    UserService userService;
+
+    @Test
+    void csvImport_WritesValidRowsAndReportsRejectedOnes() throws Exception {
+        String csv = """
+            start_at,end_at,goal_hours
+            2023-01-01T20:00:00Z,2023-01-02T12:00:00Z,16
+            2023-01-02T20:00:00Z,2023-01-03T14:00:00Z,18
+            2023-01-03T10:00:00Z,2023-01-03T20:00:00Z,16
+            2023-01-04T20:00:00Z,2023-01-04T10:00:00Z,16
+            2023-01-05T20:00:00Z,2023-01-06T12:00:00Z,49
+
+            "2023-01-06T20:00:00Z","2023-01-07T12:00:00Z",
+            """;
+
+        List<JsonNode> events = importFile("text/csv", csv);
+
+        // rows are validated and reported while reading, written afterwards
+        assertThat(events).extracting(e -> e.get("type").asText())
+            .containsExactly("PROGRESS", "ERROR", "ERROR", "ERROR", "DONE");
+        JsonNode progress = events.get(0);
+        assertThat(progress.get("line").asInt()).isEqualTo(3);
+        assertThat(progress.get("accepted").asInt()).isEqualTo(2);
+        assertThat(progress.has("imported")).isFalse();
+        assertThat(events.get(1).get("line").asInt()).isEqualTo(4);
+        assertThat(events.get(1).get("message").asText()).contains("Überschneidet");
+        assertThat(events.get(2).get("message").asText()).contains("endAt liegt vor startAt");
+        assertThat(events.get(3).get("message").asText()).contains("goalHours");
+        JsonNode done = events.get(4);
+        assertThat(done.get("imported").asInt()).isEqualTo(3);
+        assertThat(done.get("rejected").asInt()).isEqualTo(3);
+
+        JsonNode history = history();
+        assertThat(history).hasSize(3);
+        assertThat(history.get(0).get("goalHours").asInt()).isEqualTo(16);
+
+        // two batches, one counter update each: consecutive versions up to the user's counter
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT fs.version FROM fast_session fs JOIN users u ON u.id = fs.user_id
+                 WHERE u.username = ? AND fs.created_version = fs.version ORDER BY fs.version""", Long.class, username))
+            .containsExactly(1L, 2L, 3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT fast_session_version FROM users WHERE username = ?", Long.class, username))
+            .isEqualTo(3L);
+    }
+
+    @Test
+    void ndjsonImport_RejectsOverlapWithExistingSessionsAndShowsUpInChanges() throws Exception {
+        importFile("application/x-ndjson", """
+            {"startAt":"2023-03-01T20:00:00Z","endAt":"2023-03-02T12:00:00Z","goalHours":16}
+            """);
+        long synced = changes(0).get("version").asLong();
+
+        List<JsonNode> events = importFile("application/x-ndjson", """
+            {"startAt":"2023-03-02T08:00:00Z","endAt":"2023-03-02T20:00:00Z"}
+            {"start_at":"2023-03-02T12:00:00Z","end_at":"2023-03-03T04:00:00+02:00","goal_hours":14}
+            not json
+            """);
+
+        assertThat(events).extracting(e -> e.get("type").asText()).containsExactly("ERROR", "ERROR", "DONE");
+        assertThat(events.get(1).get("message").asText()).startsWith("Ungültiges JSON");
+        assertThat(events.get(2).get("imported").asInt()).isEqualTo(1);
+        JsonNode delta = changes(synced);
+        assertThat(delta.get("inserted")).hasSize(1);
+        assertThat(delta.at("/inserted/0/goalHours").asInt()).isEqualTo(14);
+    }
+
+    @Test
+    void overlapCheck_SeesSessionsHiddenBehindALongerExistingOne() throws Exception {
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        // existing sessions that overlap each other: the short one starts after the long one
+        jdbcTemplate.update("INSERT INTO fast_session (user_id, start_at, end_at, goal_hours) VALUES (?, ?, ?, 16)",
+            userId, utc("2023-05-01T00:00:00Z"), utc("2023-05-03T00:00:00Z"));
+        jdbcTemplate.update("INSERT INTO fast_session (user_id, start_at, end_at, goal_hours) VALUES (?, ?, ?, 16)",
+            userId, utc("2023-05-01T10:00:00Z"), utc("2023-05-01T12:00:00Z"));
+
+        List<JsonNode> events = importFile("text/csv", """
+            2023-05-01T14:00:00Z,2023-05-01T20:00:00Z,6
+            2023-05-03T00:00:00Z,2023-05-03T16:00:00Z,16
+            """);
+
+        assertThat(events).extracting(e -> e.get("type").asText()).containsExactly("ERROR", "DONE");
+        assertThat(events.get(0).get("message").asText()).contains("Überschneidet");
+        assertThat(events.get(1).get("imported").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void rowsRejectedInTheWriteTransaction_AreReportedAfterTheCommit() throws Exception {
+        User user = userService.getUserByIdentifier(username).orElseThrow();
+        List<String> reported = new ArrayList<>();
+
+        FastImportEvent done = importService.importSessions(user, new BufferedReader(new StringReader("""
+            2023-07-01T20:00:00Z,2023-07-02T12:00:00Z,16
+            2023-07-02T20:00:00Z,2023-07-03T12:00:00Z,16
+            """)), FastImportService.Format.CSV, event -> {
+                // the write transaction locks the user's row: a slow client must not stretch it
+                assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+                reported.add(event.getType() + "@" + event.getLine());
+                if (event.getType() == FastImportEvent.Type.PROGRESS) {
+                    // another request writes a session while the upload is still being read
+                    jdbcTemplate.update("INSERT INTO fast_session (user_id, start_at, end_at, goal_hours) VALUES (?, ?, ?, 16)",
+                        user.getId(), utc("2023-07-02T10:00:00Z"), utc("2023-07-02T11:00:00Z"));
+                }
+            });
+
+        assertThat(reported).containsExactly("PROGRESS@2", "ERROR@1");
+        assertThat(done.getImported()).isEqualTo(1);
+        assertThat(done.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void overlongLine_FailsWithoutWritingAnything() throws Exception {
+        List<JsonNode> events = importFile("text/csv", """
+            2023-01-01T20:00:00Z,2023-01-02T12:00:00Z,16
+            2023-01-02T20:00:00Z,2023-01-03T12:00:00Z,16%s
+            """.formatted(" ".repeat(5_000)));
+
+        assertThat(events).extracting(e -> e.get("type").asText()).containsExactly("FAILED");
+        assertThat(events.get(0).get("message").asText()).contains("länger als");
+        assertThat(history()).isEmpty();
+    }
+
+    @Test
+    void csvWithoutRequiredColumns_FailsWithoutWritingAnything() throws Exception {
+        List<JsonNode> events = importFile("text/csv", """
+            begin,finish
+            2023-01-01T20:00:00Z,2023-01-02T12:00:00Z
+            """);
+
+        assertThat(events).extracting(e -> e.get("type").asText()).containsExactly("FAILED");
+        assertThat(history()).isEmpty();
+    }
+
+    @Test
+    void importForAnotherUser_IsForbidden() throws Exception {
+        mockMvc.perform(post("/api/fast/user/{id}/import", "someone_else")
+                .header("Authorization", bearer)
+                .contentType("text/csv")
+                .content("2023-01-01T20:00:00Z,2023-01-02T12:00:00Z,16\n"))
+            .andExpect(status().isForbidden());
+    }
+
+    private List<JsonNode> importFile(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/fast/user/{id}/import", username)
+                .header("Authorization", bearer)
+                .contentType(contentType)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private static OffsetDateTime utc(String instant) {
+        return Instant.parse(instant).atOffset(ZoneOffset.UTC);
+    }
+
+    private JsonNode history() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/fast/user/{id}/history", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode changes(long since) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/fast/user/{id}/changes", username)
+                .param("since", Long.toString(since))
+                .header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,122 @@
+package com.larslab.fasting.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.larslab.fasting.support.AbstractUserApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.larslab.fasting.support.QueryBudget.expectStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = NONE)
+class FastSessionChangesIntegrationTest extends AbstractUserApiIntegrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void changes_ReturnOnlyWritesAfterTheGivenVersion() throws Exception {
+        long first = startAndStop();
+        JsonNode all = changes(0);
+        long synced = all.get("version").asLong();
+        assertThat(all.get("inserted")).hasSize(1);
+        assertThat(synced).isPositive();
+
+        long second = startAndStop();
+        JsonNode delta = changes(synced);
+
+        assertThat(delta.get("inserted")).hasSize(1);
+        assertThat(delta.at("/inserted/0/id").asLong()).isEqualTo(second);
+        assertThat(delta.get("updated")).isEmpty();
+        assertThat(delta.get("deleted")).isEmpty();
+        assertThat(delta.get("version").asLong()).isGreaterThan(synced);
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void backdatedEditAndDelete_AreReportedWithNewVersions() throws Exception {
+        long edited = startAndStop();
+        long removed = startAndStop();
+        long synced = changes(0).get("version").asLong();
+
+        // edits of old sessions (here: moving the start a year back) get a fresh version
+        jdbcTemplate.update("UPDATE fast_session SET start_at = start_at - INTERVAL '365 days' WHERE id = ?", edited);
+        jdbcTemplate.update("DELETE FROM fast_session WHERE id = ?", removed);
+        JsonNode delta = changes(synced);
+
+        assertThat(delta.get("inserted")).isEmpty();
+        assertThat(delta.get("updated")).hasSize(1);
+        assertThat(delta.at("/updated/0/id").asLong()).isEqualTo(edited);
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.at("/deleted/0").asLong()).isEqualTo(removed);
+        assertThat(delta.get("version").asLong()).isEqualTo(synced + 2);
+        assertThat(changes(delta.get("version").asLong()).get("updated")).isEmpty();
+    }
+
+    @Test
+    void sessionMovedToAnotherUser_IsDeletedForThePreviousOwner() throws Exception {
+        long moved = startAndStop();
+        long synced = changes(0).get("version").asLong();
+        String other = username + "_new";
+        loginOrCreate(other);
+
+        jdbcTemplate.update("UPDATE fast_session SET user_id = (SELECT id FROM users WHERE username = ?) WHERE id = ?", other, moved);
+        JsonNode delta = changes(synced);
+
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.at("/deleted/0").asLong()).isEqualTo(moved);
+        assertThat(delta.get("updated")).isEmpty();
+    }
+
+    @Test
+    void changes_StayWithinQueryBudget() throws Exception {
+        startAndStop();
+        // JWT user + authorization user + controller user + changed sessions + tombstones
+        expectStatements(5, () -> mockMvc.perform(get("/api/fast/user/{id}/changes", username)
+                .param("since", "0")
+                .header("Authorization", bearer))
+            .andExpect(status().isOk()));
+    }
+
+    @Test
+    void changesOfAnotherUser_AreForbidden() throws Exception {
+        mockMvc.perform(get("/api/fast/user/{id}/changes", "someone_else")
+                .header("Authorization", bearer))
+            .andExpect(status().isForbidden());
+    }
+
+    private long startAndStop() throws Exception {
+        mockMvc.perform(post("/api/fast/user/{id}/start", username)
+                .header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"goalHours\":16}"))
+            .andExpect(status().isOk());
+        String stopped = mockMvc.perform(post("/api/fast/user/{id}/stop", username)
+                .header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(stopped).get("id").asLong();
+    }
+
+    private JsonNode changes(long since) throws Exception {
+        String body = mockMvc.perform(get("/api/fast/user/{id}/changes", username)
+                .param("since", Long.toString(since))
+                .header("Authorization", bearer))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
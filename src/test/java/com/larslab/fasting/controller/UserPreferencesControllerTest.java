@@ -8,6 +8,7 @@ import com.larslab.fasting.service.UserService;
 import com.larslab.fasting.config.FeatureFlags;
 import com.larslab.fasting.service.RefreshTokenService;
 import com.larslab.fasting.security.JwtService;
+import com.larslab.fasting.security.TokenRevocationIndex;
 import com.larslab.fasting.config.TestSecurityConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,9 @@ class UserPreferencesControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private TokenRevocationIndex tokenRevocationIndex;
+
     // Provide FeatureFlags dependency required by UserController (slice tests don't scan generic @Component)
     @MockBean
     private FeatureFlags featureFlags;
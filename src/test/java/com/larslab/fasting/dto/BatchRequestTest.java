@@ -0,0 +1,35 @@
+package com.larslab.fasting.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchRequestTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void operations_UpToTheLimit_AreValid() {
+        BatchRequest request = new BatchRequest(Collections.nCopies(BatchRequest.MAX_OPERATIONS,
+            new BatchRequest.Operation("q", BatchRequest.Type.STATUS)));
+
+        assertThat(validator.validate(request)).isEmpty();
+    }
+
+    @Test
+    void operations_AboveTheLimit_AreRejected() {
+        BatchRequest request = new BatchRequest(Collections.nCopies(BatchRequest.MAX_OPERATIONS + 1,
+            new BatchRequest.Operation("q", BatchRequest.Type.STATUS)));
+
+        Set<ConstraintViolation<BatchRequest>> violations = validator.validate(request);
+
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getMessage()).isEqualTo("Maximal 50 Operationen pro Batch");
+    }
+}
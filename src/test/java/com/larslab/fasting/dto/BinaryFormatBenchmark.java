@@ -0,0 +1,104 @@
+package com.larslab.fasting.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.larslab.fasting.config.FeatureFlags;
+import com.larslab.fasting.model.FastSession;
+import com.larslab.fasting.model.FastSessionJsonSerializer;
+import com.larslab.fasting.model.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload size and encode/decode time of JSON against CBOR ({@code Accept: application/cbor})
+ * for the responses the mobile app polls: status, user and history lists of 20 and 200
+ * sessions. Both mappers use the Boot-like settings and the {@link FastSessionJsonSerializer};
+ * decoding targets the DTOs, history is decoded into a tree as a generic client would.
+ *
+ * Excluded from the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BinaryFormatBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryFormatBenchmark.class);
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private static long sink;
+
+    @Test
+    void jsonVersusCbor() throws Exception {
+        ObjectMapper json = configure(JsonMapper.builder());
+        ObjectMapper cbor = configure(CBORMapper.builder());
+
+        User user = new User("alice", "alice@example.com");
+        user.setId(7L);
+        FastStatusResponse status = new FastStatusResponse(true, 13, 42, "2026-01-01T08:00:00Z", 16);
+        UserResponse userResponse = new UserResponse(user, new FeatureFlags());
+
+        compare("status", json, cbor, status, FastStatusResponse.class, ITERATIONS);
+        compare("user", json, cbor, userResponse, UserResponse.class, ITERATIONS);
+        compare("history[20]", json, cbor, history(user, 20), JsonNode.class, ITERATIONS / 10);
+        compare("history[200]", json, cbor, history(user, 200), JsonNode.class, ITERATIONS / 100);
+    }
+
+    private static ObjectMapper configure(MapperBuilder<?, ?> builder) {
+        return builder
+            .addModule(new JavaTimeModule())
+            .addModule(new SimpleModule().addSerializer(FastSession.class, new FastSessionJsonSerializer()))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    }
+
+    private static void compare(String name, ObjectMapper json, ObjectMapper cbor, Object value, Class<?> type,
+                                int iterations) throws Exception {
+        for (ObjectMapper mapper : new ObjectMapper[]{json, cbor}) {
+            byte[] encoded = mapper.writeValueAsBytes(value);
+            for (int i = 0; i < Math.min(WARMUP, iterations); i++) {
+                sink += mapper.writeValueAsBytes(value).length;
+                sink += mapper.readValue(encoded, type).hashCode();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += mapper.writeValueAsBytes(value).length;
+            }
+            long encode = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += mapper.readValue(encoded, type).hashCode();
+            }
+            long decode = System.nanoTime() - start;
+            log.info("{} {} {} bytes  encode {} ns  decode {} ns", name,
+                    mapper == json ? "json" : "cbor", encoded.length, encode / iterations, decode / iterations);
+        }
+    }
+
+    private static List<FastSession> history(User user, int size) {
+        Instant base = Instant.parse("2026-01-01T08:00:00Z");
+        List<FastSession> sessions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Instant start = base.minus(i, ChronoUnit.DAYS);
+            FastSession session = new FastSession(user, start, 16);
+            session.setEndAt(start.plus(16, ChronoUnit.HOURS).plusSeconds(i * 37L));
+            sessions.add(session);
+        }
+        return sessions;
+    }
+}
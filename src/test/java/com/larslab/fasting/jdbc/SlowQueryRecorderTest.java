@@ -0,0 +1,60 @@
+package com.larslab.fasting.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlowQueryRecorderTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void record_AggregatesBySqlAndPublishesOnlyParameterTypes() {
+        // Given
+        SlowQueryRecorder recorder = new SlowQueryRecorder(100, 10);
+        String sql = "select u1_0.id from users u1_0 where lower(u1_0.email)=?";
+
+        // When
+        recorder.record(sql, new Object[]{"alice@example.com"}, 150 * MS);
+        recorder.record(sql, new Object[]{null}, 250 * MS);
+
+        // Then
+        assertThat(recorder.snapshot()).singleElement().satisfies(query -> {
+            assertThat(query.count()).isEqualTo(2);
+            assertThat(query.maxMs()).isEqualTo(250.0);
+            assertThat(query.avgMs()).isEqualTo(200.0);
+            assertThat(query.parameterTypes()).containsExactly("null");
+            assertThat(query.toString()).doesNotContain("alice@example.com");
+        });
+    }
+
+    @Test
+    void record_IgnoresNewStatementsOnceFull() {
+        // Given
+        SlowQueryRecorder recorder = new SlowQueryRecorder(100, 1);
+
+        // When
+        recorder.record("select 1", new Object[0], 150 * MS);
+        recorder.record("select 2", new Object[0], 150 * MS);
+        recorder.record("select 1", new Object[0], 300 * MS);
+
+        // Then
+        assertThat(recorder.snapshot()).extracting(SlowQueryRecorder.SlowQuery::sql).containsExactly("select 1");
+    }
+
+    @Test
+    void explainCandidates_OnlyPlainSelects() {
+        // Given
+        SlowQueryRecorder recorder = new SlowQueryRecorder(100, 10);
+        recorder.record("select * from fast_session where user_id=?", new Object[]{1L}, 150 * MS);
+        recorder.record("select * from refresh_token where id=? for update", new Object[]{1L}, 150 * MS);
+        recorder.record("delete from refresh_token where expires_at<?", new Object[]{Instant.now()}, 150 * MS);
+
+        // When / Then
+        assertThat(recorder.explainCandidates(Instant.now(), 10))
+                .extracting(entry -> entry.sql)
+                .containsExactly("select * from fast_session where user_id=?");
+    }
+}
@@ -0,0 +1,26 @@
+package com.larslab.fasting.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestIdsTest {
+
+    @Test
+    void next_IsTimeOrderedCrockfordBase32() {
+        String earlier = RequestIds.next(1_700_000_000_000L);
+        String later = RequestIds.next(1_700_000_000_001L);
+
+        assertThat(earlier).hasSize(RequestIds.LENGTH).matches("[0-9A-HJKMNP-TV-Z]+");
+        assertThat(earlier.substring(0, 10)).isLessThan(later.substring(0, 10));
+        assertThat(RequestIds.next()).isNotEqualTo(RequestIds.next());
+    }
+
+    @Test
+    void isValid_MatchesTheFormerRegex() {
+        for (String value : new String[]{"", "abc", "abcd-123", "0123456789abcdefABCDEF", "with space1", "ümlaut123",
+                "x".repeat(128), "x".repeat(129), "a_b_c_d_e", RequestIds.next()}) {
+            assertThat(RequestIds.isValid(value)).as(value).isEqualTo(value.matches("[A-Za-z0-9-]{8,128}"));
+        }
+    }
+}
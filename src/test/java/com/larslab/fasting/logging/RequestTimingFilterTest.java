@@ -0,0 +1,108 @@
+package com.larslab.fasting.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.larslab.fasting.startup.FirstMinuteLatency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestTimingFilterTest {
+
+    private static final long NEVER = Long.MAX_VALUE / 1_000_000L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Logger accessLog = (Logger) LoggerFactory.getLogger("access");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        appender.start();
+        accessLog.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        accessLog.detachAppender(appender);
+    }
+
+    @Test
+    void sampledRequest_IsLoggedWithItsBreakdown() throws Exception {
+        run(filter(1.0, NEVER, Long.MAX_VALUE), (request, response) -> response.getOutputStream().write(new byte[42]));
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(fields(appender.list.get(0))).contains("status=200", "responseBytes=42", "jdbcStatements=0");
+    }
+
+    @Test
+    void unsampledFastRequest_IsNotLogged() throws Exception {
+        run(filter(0.0, NEVER, Long.MAX_VALUE), (request, response) -> response.getOutputStream().write(new byte[42]));
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void slowRequest_IsAlwaysLogged() throws Exception {
+        run(filter(0.0, 0, Long.MAX_VALUE), (request, response) -> { });
+
+        assertThat(appender.list).hasSize(1);
+    }
+
+    @Test
+    void requestAboveTheStatementThreshold_IsAlwaysLoggedAndRecorded() throws Exception {
+        run(filter(0.0, NEVER, 2), (request, response) -> {
+            for (int i = 0; i < 3; i++) {
+                JdbcStats.current().record(1_000);
+            }
+        });
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(fields(appender.list.get(0))).contains("jdbcStatements=3");
+        assertThat(registry.get("http.server.jdbc.statements").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void writerOutput_IsCountedInEncodedBytes() throws Exception {
+        MockHttpServletResponse response = run(filter(1.0, NEVER, Long.MAX_VALUE), (request, res) -> {
+            res.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            res.getWriter().write("Grüße 🙂");
+            res.getWriter().print('!');
+        });
+
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("Grüße 🙂!");
+        assertThat(fields(appender.list.get(0)))
+            .contains("responseBytes=" + "Grüße 🙂!".getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private RequestTimingFilter filter(double sampleRate, long slowMs, long statementsThreshold) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("registry", registry));
+        return new RequestTimingFilter(true, sampleRate, 1_000, slowMs, statementsThreshold,
+            beans.getBeanProvider(MeterRegistry.class), beans.getBeanProvider(FirstMinuteLatency.class));
+    }
+
+    private static MockHttpServletResponse run(RequestTimingFilter filter, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fast/status");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static List<String> fields(ILoggingEvent event) {
+        return Arrays.stream(event.getArgumentArray()).map(Object::toString).toList();
+    }
+}
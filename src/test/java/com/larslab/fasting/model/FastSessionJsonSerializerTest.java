@@ -0,0 +1,99 @@
+package com.larslab.fasting.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FastSessionJsonSerializerTest {
+
+    // same date/duration settings as Spring Boot's auto-configured mapper
+    static JsonMapper.Builder bootLikeMapper() {
+        return JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+
+    static ObjectMapper withSerializer(JsonMapper.Builder builder) {
+        return builder.addModule(new SimpleModule().addSerializer(FastSession.class, new FastSessionJsonSerializer())).build();
+    }
+
+    static List<FastSession> history(User user, int size) {
+        Instant base = Instant.parse("2026-01-01T08:00:00Z");
+        List<FastSession> sessions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Instant start = base.minus(i, ChronoUnit.DAYS);
+            FastSession session = new FastSession(user, start, 12 + i % 8);
+            session.setEndAt(start.plus(14 + i % 6, ChronoUnit.HOURS).plusSeconds(i));
+            ReflectionTestUtils.setField(session, "id", (long) size - i);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    static User user() {
+        User user = new User("alice", "alice@example.com");
+        user.setId(7L);
+        return user;
+    }
+
+    @Test
+    void completedHistory_MatchesReflectiveSerialization() throws Exception {
+        ObjectMapper reflective = bootLikeMapper().build();
+        ObjectMapper custom = withSerializer(bootLikeMapper());
+        List<FastSession> sessions = history(user(), 3);
+        sessions.add(new FastSession(Instant.parse("2025-12-01T20:00:00Z"), Instant.parse("2025-12-02T12:30:00Z")));
+
+        JsonNode expected = reflective.readTree(reflective.writeValueAsBytes(sessions));
+        JsonNode actual = custom.readTree(custom.writeValueAsBytes(sessions));
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.get(0).get("duration").asText()).isEqualTo("PT14H");
+        assertThat(actual.get(3).get("user").isNull()).isTrue();
+    }
+
+    @Test
+    void user_LeavesOutTheTokenGeneration() throws Exception {
+        ObjectMapper custom = withSerializer(bootLikeMapper());
+
+        JsonNode json = custom.readTree(custom.writeValueAsBytes(history(user(), 1)));
+
+        assertThat(json.get(0).get("user").has("username")).isTrue();
+        assertThat(json.get(0).get("user").has("tokenGeneration")).isFalse();
+    }
+
+    @Test
+    void runningSessions_ShareOneClockReadPerResponse() throws Exception {
+        ObjectMapper custom = withSerializer(bootLikeMapper());
+        Instant start = Instant.now().minus(3, ChronoUnit.HOURS);
+        List<FastSession> sessions = List.of(new FastSession(start, 16), new FastSession(start, 16));
+
+        JsonNode json = custom.readTree(custom.writeValueAsBytes(sessions));
+
+        assertThat(json.get(0).get("endAt").isNull()).isTrue();
+        assertThat(json.get(0).get("duration")).isEqualTo(json.get(1).get("duration"));
+    }
+
+    @Test
+    void timestampsConfigured_FallsBackToJavaTimeSerializers() throws Exception {
+        JsonMapper.Builder timestamps = JsonMapper.builder().addModule(new JavaTimeModule());
+        ObjectMapper reflective = timestamps.build();
+        ObjectMapper custom = withSerializer(JsonMapper.builder().addModule(new JavaTimeModule()));
+        List<FastSession> sessions = history(user(), 2);
+
+        assertThat(custom.readTree(custom.writeValueAsBytes(sessions)))
+            .isEqualTo(reflective.readTree(reflective.writeValueAsBytes(sessions)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.larslab.fasting.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Serializing a 5,000-session history (one user) straight to an output stream on a single
+ * thread: Jackson's reflective bean serializer (previous behaviour) against
+ * {@link FastSessionJsonSerializer}, with the Boot-like mapper settings of
+ * {@link FastSessionJsonSerializerTest}.
+ *
+ * Excluded from the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class FastSessionSerializationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FastSessionSerializationBenchmark.class);
+
+    private static final int SESSIONS = 5_000;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 1_000;
+
+    private static long sink;
+
+    @Test
+    void history5000() throws Exception {
+        List<FastSession> history = FastSessionJsonSerializerTest.history(FastSessionJsonSerializerTest.user(), SESSIONS);
+        run("reflective", FastSessionJsonSerializerTest.bootLikeMapper().build(), history);
+        run("serializer", FastSessionJsonSerializerTest.withSerializer(FastSessionJsonSerializerTest.bootLikeMapper()), history);
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<FastSession> history) throws Exception {
+        CountingStream out = new CountingStream();
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValue(out, history);
+        }
+        out.bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValue(out, history);
+        }
+        long nanos = System.nanoTime() - start;
+        sink += out.bytes;
+        log.info("{} {} ms/response {} bytes/response",
+                name, String.format("%.2f", nanos / 1e6 / ITERATIONS), out.bytes / ITERATIONS);
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long bytes;
+
+        @Override public void write(int b) { bytes++; }
+        @Override public void write(byte[] b, int off, int len) { bytes += len; }
+        @Override public void close() { } // writeValue closes the target
+    }
+}
@@ -0,0 +1,74 @@
+package com.larslab.fasting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:admin-endpoints;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "management.endpoints.web.exposure.include=health,info,prometheus,slowqueries",
+    "slow.query.enabled=true",
+    "slow.query.explain.enabled=false",
+    "SWAGGER_BASIC_USER=admin",
+    "SWAGGER_BASIC_PASS=secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class AdminEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void slowQueries_WithoutCredentials_IsUnauthorized() throws Exception {
+        mvc.perform(get("/actuator/slowqueries")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void slowQueries_WithWrongPassword_IsUnauthorized() throws Exception {
+        mvc.perform(get("/actuator/slowqueries").header(HttpHeaders.AUTHORIZATION, basic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void slowQueries_WithAdminCredentials_IsOk() throws Exception {
+        mvc.perform(get("/actuator/slowqueries").header(HttpHeaders.AUTHORIZATION, basic("admin", "secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_WithoutCredentials_IsUnauthorized() throws Exception {
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_WithBasicCredentials_IsOk() throws Exception {
+        mvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("admin", "secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void health_StaysPublic() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    static String basic(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
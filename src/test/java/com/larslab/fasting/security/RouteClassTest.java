@@ -0,0 +1,34 @@
+package com.larslab.fasting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RouteClassTest {
+
+    @Test
+    void classify_MatchesThePathPatternsOfTheFilters() {
+        assertThat(RouteClass.classify("/actuator/health")).isEqualTo(RouteClass.ACTUATOR);
+        assertThat(RouteClass.classify("/actuator/prometheus")).isEqualTo(RouteClass.METRICS);
+        assertThat(RouteClass.classify("/actuator/slowqueries")).isEqualTo(RouteClass.ADMIN);
+        assertThat(RouteClass.classify("/swagger-ui")).isEqualTo(RouteClass.API_DOCS);
+        assertThat(RouteClass.classify("/swagger-ui/index.html")).isEqualTo(RouteClass.API_DOCS);
+        assertThat(RouteClass.classify("/swagger-ui.html")).isEqualTo(RouteClass.API_DOCS);
+        assertThat(RouteClass.classify("/v3/api-docs")).isEqualTo(RouteClass.API_DOCS);
+        assertThat(RouteClass.classify("/v3/api-docs/swagger-config")).isEqualTo(RouteClass.API_DOCS);
+        assertThat(RouteClass.classify("/swagger-2fa")).isEqualTo(RouteClass.SWAGGER_2FA);
+        assertThat(RouteClass.classify("/swagger-uix")).isEqualTo(RouteClass.API);
+        assertThat(RouteClass.classify("/actuator")).isEqualTo(RouteClass.API);
+        assertThat(RouteClass.classify("/api/fast/status")).isEqualTo(RouteClass.API);
+    }
+
+    @Test
+    void of_ClassifiesOncePerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+        assertThat(RouteClass.of(request)).isEqualTo(RouteClass.ACTUATOR);
+        request.setRequestURI("/api/fast/status");
+        assertThat(RouteClass.of(request)).isEqualTo(RouteClass.ACTUATOR);
+    }
+}
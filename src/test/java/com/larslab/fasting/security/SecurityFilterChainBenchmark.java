@@ -0,0 +1,107 @@
+package com.larslab.fasting.security;
+
+import com.larslab.fasting.logging.CorrelationIdFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Overhead of the custom security filters (correlation id, Swagger auth, JWT, rate limit)
+ * per request on a single thread, for an actuator probe and an API route without bearer
+ * token. Also compares the per-filter path checks they replaced ({@link AntPathMatcher}
+ * matches, prefix check, full-URI key) with one {@link RouteClass} classification.
+ *
+ * Excluded from the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SecurityFilterChainBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilterChainBenchmark.class);
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final AntPathMatcher matcher = new AntPathMatcher();
+
+    private static long sink;
+
+    @Test
+    void filterChainOverhead() throws Exception {
+        Filter[] filters = filters();
+        Servlet endpoint = new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) {
+            }
+        };
+        for (String path : new String[]{"/actuator/health", "/api/fast/status"}) {
+            run("chain " + path, () -> {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+                request.setRemoteAddr("203.0.113.7");
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                FilterChain chain = new MockFilterChain(endpoint, filters);
+                chain.doFilter(request, response);
+                sink += response.getStatus();
+            });
+        }
+    }
+
+    @Test
+    void pathChecksPerRequest() throws Exception {
+        for (String path : new String[]{"/actuator/health", "/api/fast/status"}) {
+            run("legacy " + path, () -> {
+                boolean swagger = matcher.match("/swagger-ui/**", path) || matcher.match("/v3/api-docs/**", path)
+                        || matcher.match("/swagger-ui.html", path) || matcher.match("/actuator/slowqueries", path)
+                        || matcher.match("/swagger-2fa", path);
+                boolean actuator = path.startsWith("/actuator/");
+                String key = "203.0.113.7" + '|' + path;
+                sink += (swagger ? 1 : 0) + (actuator ? 1 : 0) + key.hashCode();
+            });
+            run("route " + path, () -> {
+                RouteClass route = RouteClass.classify(path);
+                String key = "203.0.113.7" + '|' + (route == RouteClass.API ? path : route.name());
+                sink += route.ordinal() + key.hashCode();
+            });
+        }
+    }
+
+    private static Filter[] filters() {
+        RateLimitingFilter rateLimiting = new RateLimitingFilter();
+        ReflectionTestUtils.setField(rateLimiting, "capacity", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(rateLimiting, "windowMs", 60_000L);
+        return new Filter[]{
+            new CorrelationIdFilter("ulid"),
+            new SwaggerBasicAuthFilter("admin", "secret", true, false, "", "", 15, "x".repeat(32)),
+            // neither request carries a bearer token, so no collaborators are needed
+            new JwtAuthenticationFilter(null, null, null),
+            rateLimiting
+        };
+    }
+
+    private static void run(String name, ThrowingRunnable request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("{} {} ns/request", name, Math.round(seconds * 1e9 / ITERATIONS));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,159 @@
+package com.larslab.fasting.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SwaggerBasicAuthFilterTest {
+
+    private static final String SECRET = "TEST_TEST_TEST_TEST_TEST_SECRET_1234567890abcdef";
+    private static final String GOOD = basic("admin", "secret");
+    private static final String WRONG = basic("admin", "guess");
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void basicCredentials_AreCheckedOnEveryRequestAndNeverRetained() throws Exception {
+        SwaggerBasicAuthFilter filter = filter(false);
+        assertThat(passes(filter, request(GOOD))).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(WRONG), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader("WWW-Authenticate")).isEqualTo("Basic realm=Swagger");
+        assertThat(passes(filter, request(GOOD))).isTrue();
+        // the only cache holds 2FA cookie values, never Authorization headers
+        assertThat(verifiedSessions(filter).asMap()).isEmpty();
+    }
+
+    @Test
+    void twoFactorCookie_IsReusedWithoutTheCodeUntilItExpires() throws Exception {
+        SwaggerBasicAuthFilter filter = filter(true);
+        MockHttpServletRequest withCode = request(GOOD);
+        withCode.addHeader("X-2FA", "123456");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(withCode, first, chain);
+        assertThat(chain.getRequest()).isNotNull();
+        Cookie cookie = first.getCookie("SWAGGER_2FA");
+        assertThat(cookie).isNotNull();
+
+        assertThat(passes(filter, request(GOOD, cookie))).isTrue();
+        assertThat(verifiedSessions(filter).asMap()).containsOnlyKeys(cookie.getValue());
+        assertThat(passes(filter, request(GOOD, cookie))).isTrue();
+        // the cookie alone is not enough
+        assertThat(passes(filter, request(WRONG, cookie))).isFalse();
+        assertThat(passes(filter, request(null, cookie))).isFalse();
+
+        clock.advance(Duration.ofMinutes(15).plusSeconds(1));
+
+        MockHttpServletResponse expired = new MockHttpServletResponse();
+        filter.doFilter(request(GOOD, cookie), expired, new MockFilterChain());
+        assertThat(expired.getStatus()).isEqualTo(401);
+        assertThat(expired.getHeader("X-Require-2FA")).isEqualTo("true");
+    }
+
+    @Test
+    void twoFactorCookie_WithForgedSignature_IsRejected() throws Exception {
+        SwaggerBasicAuthFilter filter = filter(true);
+        long exp = clock.instant().plus(Duration.ofMinutes(10)).getEpochSecond();
+
+        assertThat(passes(filter, request(GOOD, new Cookie("SWAGGER_2FA", exp + "." + "0".repeat(64))))).isFalse();
+    }
+
+    @Test
+    void adminRoute_GrantsAdminAuthority_MetricsRouteSkipsTheSecondFactor() throws Exception {
+        SwaggerBasicAuthFilter filter = filter(true);
+
+        MockHttpServletRequest metrics = request(GOOD);
+        metrics.setRequestURI("/actuator/prometheus");
+        assertThat(passes(filter, metrics)).isTrue();
+        assertThat(authorities()).containsExactly(SwaggerBasicAuthFilter.METRICS_AUTHORITY);
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest admin = request(GOOD);
+        admin.setRequestURI("/actuator/slowqueries");
+        assertThat(passes(filter, admin)).isFalse();
+        admin = request(GOOD);
+        admin.setRequestURI("/actuator/slowqueries");
+        admin.addHeader("X-2FA", "123456");
+        assertThat(passes(filter, admin)).isTrue();
+        assertThat(authorities()).containsExactly(SwaggerBasicAuthFilter.ADMIN_AUTHORITY);
+    }
+
+    private SwaggerBasicAuthFilter filter(boolean twoFactor) {
+        return new SwaggerBasicAuthFilter("admin", "secret", true, twoFactor, "123456", "", 15, SECRET, clock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, ?> verifiedSessions(SwaggerBasicAuthFilter filter) {
+        return (Cache<String, ?>) ReflectionTestUtils.getField(filter, "verifiedSessions");
+    }
+
+    private static boolean passes(SwaggerBasicAuthFilter filter, MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest() != null;
+    }
+
+    private static MockHttpServletRequest request(String authorization, Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v3/api-docs");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        return request;
+    }
+
+    private static List<String> authorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    private static String basic(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override public Instant instant() { return now; }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+    }
+}
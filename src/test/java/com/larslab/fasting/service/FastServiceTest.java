@@ -5,10 +5,10 @@ import com.larslab.fasting.model.User;
 import com.larslab.fasting.repo.FastRepository;
 import com.larslab.fasting.dto.StartFastRequest;
 import com.larslab.fasting.dto.FastStatusResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,7 +27,7 @@ class FastServiceTest {
     @Mock
     private FastRepository repository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private FastService fastService;
 
     private FastSession activeFastSession;
@@ -37,6 +37,8 @@ class FastServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fastService = new FastService(repository, meterRegistry);
         now = Instant.now();
         testUser = new User("testuser", "test@example.com");
         testUser.setId(1L);
@@ -497,4 +499,36 @@ class FastServiceTest {
         // Then
         assertThat(result.getProgressPercent()).isCloseTo(33.333, within(0.1));
     }
+
+    @Test
+    void start_WithUser_WhenActiveSessionExists_CountsAlreadyActiveConflict() {
+        // Given
+        when(repository.findFirstByUserAndEndAtIsNullOrderByStartAtDesc(testUser))
+                .thenReturn(Optional.of(activeFastSession));
+
+        // When
+        assertThatThrownBy(() -> fastService.start(testUser, new StartFastRequest(16)))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(meterRegistry.get("fasting.conflicts").tag("reason", "already_active").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("fasting.conflicts").tag("reason", "no_active_fast").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void stop_WithUser_WhenNoActiveSession_CountsNoActiveFastConflict() {
+        // Given
+        when(repository.findFirstByUserAndEndAtIsNullOrderByStartAtDesc(testUser))
+                .thenReturn(Optional.empty());
+
+        // When
+        assertThatThrownBy(() -> fastService.stop(testUser))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(meterRegistry.get("fasting.conflicts").tag("reason", "no_active_fast").counter().count())
+                .isEqualTo(1.0);
+    }
 }
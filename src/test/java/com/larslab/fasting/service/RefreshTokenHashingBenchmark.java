@@ -0,0 +1,69 @@
+package com.larslab.fasting.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * CPU cost of one refresh on a single thread (= per core): mint the successor token and
+ * hash presented token, successor, user agent and IP prefix. Compares the previous
+ * implementation (UUID pair, MessageDigest lookup + base64 per hash) with {@link TokenHashing}.
+ *
+ * Excluded from the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RefreshTokenHashingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenHashingBenchmark.class);
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_5) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.5 Safari/605.1.15";
+    private static final String IP_PREFIX = "203.0.113";
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static long sink;
+
+    @Test
+    void refreshesPerSecondPerCore() throws Exception {
+        String presented = TokenHashing.newToken();
+
+        run("legacy", () -> {
+            String successor = UUID.randomUUID() + ":" + UUID.randomUUID();
+            sink += legacyHash(presented).length() + legacyHash(successor).length()
+                    + legacyHash(USER_AGENT).length() + legacyHash(IP_PREFIX).length();
+        });
+        run("current", () -> {
+            String successor = TokenHashing.newToken();
+            sink += TokenHashing.sha256(presented)[0] + TokenHashing.sha256(successor)[0]
+                    + TokenHashing.sha256(USER_AGENT)[0] + TokenHashing.sha256(IP_PREFIX)[0];
+        });
+    }
+
+    private static void run(String name, ThrowingRunnable refresh) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            refresh.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            refresh.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("{} {} refreshes/s/core ({} ns/op)", name, Math.round(ITERATIONS / seconds), Math.round(seconds * 1e9 / ITERATIONS));
+    }
+
+    private static String legacyHash(String value) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,74 @@
+package com.larslab.fasting.service;
+
+import com.larslab.fasting.repo.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenSweeperTest {
+
+    @Mock
+    private RefreshTokenRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new RefreshTokenSweeper(repository, meterRegistry, 100, 3, 24, 2, 1);
+    }
+
+    @Test
+    void purge_StopsAfterShortBatch() {
+        // Given
+        Instant now = Instant.now();
+        when(repository.purgeBatch(any(), any(), eq(100))).thenReturn(100, 40);
+
+        // When
+        long deleted = sweeper.purge(now);
+
+        // Then
+        assertThat(deleted).isEqualTo(140);
+        verify(repository, times(2)).purgeBatch(now, now.minus(24, ChronoUnit.HOURS), 100);
+        assertThat(meterRegistry.get("refresh.tokens.purged").counter().count()).isEqualTo(140.0);
+    }
+
+    @Test
+    void purge_StopsAtMaxBatches() {
+        // Given
+        when(repository.purgeBatch(any(), any(), eq(100))).thenReturn(100);
+
+        // When
+        long deleted = sweeper.purge(Instant.now());
+
+        // Then
+        assertThat(deleted).isEqualTo(300);
+        verify(repository, times(3)).purgeBatch(any(), any(), eq(100));
+    }
+
+    @Test
+    void sweep_MaintainsPartitionsOnlyWhenPartitioned() {
+        // Given
+        when(repository.purgeBatch(any(), any(), eq(100))).thenReturn(0);
+        when(repository.isPartitioned()).thenReturn(false);
+
+        // When
+        sweeper.sweep();
+
+        // Then
+        verify(repository, never()).maintainPartitions(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,78 @@
+package com.larslab.fasting.service;
+
+import com.larslab.fasting.dto.LoginOrCreateRequest;
+import com.larslab.fasting.dto.UpdateLanguageRequest;
+import com.larslab.fasting.model.User;
+import com.larslab.fasting.repo.UserRepository;
+import com.larslab.fasting.security.TokenRevocationIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Logout-all racing with writes of a {@link User} loaded before the bump: the entity's stale
+ * generation must not be written back. The revoking thread commits while the writing
+ * transaction holds the loaded entity and before it flushes.
+ */
+@SpringBootTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:token-generation;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+class TokenGenerationRaceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void loginOverlappingLogoutAll_KeepsTheNewGeneration() {
+        String username = "race_" + UUID.randomUUID().toString().substring(0, 8);
+        userService.loginOrCreateUser(login(username));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.loginOrCreateUser(login(username));
+            CompletableFuture.runAsync(() -> tokenRevocationIndex.revokeAll(username)).join();
+        });
+
+        assertThat(userRepository.findTokenGenerationByUsername(username)).contains(1);
+        assertThat(tokenRevocationIndex.isCurrent(username, 0)).isFalse();
+    }
+
+    @Test
+    void preferencesUpdateOverlappingLogoutAll_KeepsTheNewGeneration() {
+        String username = "race_" + UUID.randomUUID().toString().substring(0, 8);
+        Long userId = userService.loginOrCreateUser(login(username)).getId();
+        UpdateLanguageRequest language = new UpdateLanguageRequest("en");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateLanguage(userId, language);
+            CompletableFuture.runAsync(() -> tokenRevocationIndex.revokeAll(username)).join();
+        });
+
+        assertThat(userRepository.findTokenGenerationByUsername(username)).contains(1);
+    }
+
+    private static LoginOrCreateRequest login(String username) {
+        return new LoginOrCreateRequest(username, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.larslab.fasting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenHashingTest {
+
+    @Test
+    void sha256_MatchesMessageDigestForAsciiAndNonAscii() throws Exception {
+        for (String value : new String[]{"", "abc", "Mozilla/5.0 (X11; Linux x86_64)", "Gerät/1.0 ☕", "x".repeat(1000)}) {
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            assertThat(TokenHashing.sha256(value)).as(value).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void newToken_Is256BitBase64Url() {
+        String token = TokenHashing.newToken();
+
+        assertThat(token).hasSize(43).matches("[A-Za-z0-9_-]+");
+        assertThat(Base64.getUrlDecoder().decode(token)).hasSize(TokenHashing.TOKEN_BYTES);
+        assertThat(TokenHashing.newToken()).isNotEqualTo(token);
+    }
+}
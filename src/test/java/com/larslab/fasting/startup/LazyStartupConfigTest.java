@@ -0,0 +1,54 @@
+package com.larslab.fasting.startup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyStartupConfigTest {
+
+    static final AtomicInteger created = new AtomicInteger();
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withUserConfiguration(LazyStartupConfig.class, Deferred.class)
+        .withPropertyValues("startup.deferred=" + Deferred.class.getName());
+
+    @BeforeEach
+    void reset() {
+        created.set(0);
+    }
+
+    @Test
+    void lazy_BeansOfDeferredClassesAreCreatedOnFirstUse() {
+        runner.withPropertyValues("startup.lazy=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(created).hasValue(0);
+            assertThat(context.getBeanFactory().getBeanDefinition("expensive").isLazyInit()).isTrue();
+
+            context.getBean("expensive");
+            assertThat(created).hasValue(1);
+        });
+    }
+
+    @Test
+    void default_EverythingStaysEager() {
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(created).hasValue(1);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class Deferred {
+        @Bean
+        Object expensive() {
+            created.incrementAndGet();
+            return new Object();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.larslab.fasting.startup;
+
+import com.larslab.fasting.support.AbstractIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StartupReadinessIntegrationTest extends AbstractIntegrationTest {
+
+    @DynamicPropertySource
+    static void warmupProps(DynamicPropertyRegistry registry) {
+        registry.add("startup.warmup.enabled", () -> "true");
+        registry.add("startup.warmup.iterations", () -> "20");
+        registry.add("startup.warmup.db-iterations", () -> "2");
+    }
+
+    @Autowired
+    HotPathHealthIndicator hotPath;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void readyAfterHotPathResolvedAndWarmupRecorded() {
+        assertThat(hotPath.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(hotPath.health().getDetails()).containsKeys("resolveMs", "warmupMs");
+
+        for (String phase : new String[]{"jwt", "json", "db", "total"}) {
+            assertThat(meterRegistry.find("startup.warmup").tag("phase", phase).timer())
+                .as(phase).isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isEqualTo(1));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.larslab.fasting.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests that call the API as a user of their own: before each test a fresh user
+ * is created via {@code /api/users/login-or-create}; {@link #username} and {@link #bearer}
+ * (the complete Authorization header value) are ready to use. Subclasses need MockMvc
+ * ({@code @AutoConfigureMockMvc}).
+ */
+public abstract class AbstractUserApiIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    protected String username;
+    protected String bearer;
+
+    @BeforeEach
+    void login() throws Exception {
+        username = "it_" + UUID.randomUUID().toString().substring(0, 8);
+        bearer = loginOrCreate(username);
+    }
+
+    /** Logs in (creating the user if needed) and returns the {@code Bearer …} header value. */
+    protected String loginOrCreate(String name) throws Exception {
+        String payload = objectMapper.writeValueAsString(Map.of("username", name, "email", name + "@example.com"));
+        String response = mockMvc.perform(post("/api/users/login-or-create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readValue(response, Map.class).get("accessToken");
+    }
+}
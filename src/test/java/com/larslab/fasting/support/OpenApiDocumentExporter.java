@@ -0,0 +1,68 @@
+package com.larslab.fasting.support;
+
+import com.larslab.fasting.FastingApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time OpenAPI export, run by Maven in {@code prepare-package} (exec plugin, test
+ * classpath, skip with {@code -Dopenapi.skip}). Boots the application on an in-memory H2
+ * database, fetches the springdoc document once and writes {@code openapi.json} plus a
+ * gzip copy to the given directory, which ends up in the jar under {@code openapi/}.
+ */
+public final class OpenApiDocumentExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiDocumentExporter.class);
+
+    private OpenApiDocumentExporter() {}
+
+    public static void main(String[] args) throws Exception {
+        Path outputDir = Path.of(args.length > 0 ? args[0] : "target/classes/openapi");
+        ConfigurableApplicationContext context = SpringApplication.run(FastingApplication.class,
+            "--spring.profiles.active=test",
+            "--server.port=0",
+            "--spring.flyway.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.datasource.url=jdbc:h2:mem:openapi;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--springdoc.api-docs.path=/v3/api-docs",
+            "--openapi.precomputed.enabled=false",
+            "--refresh.purge.enabled=false",
+            "--SWAGGER_BASIC_ENABLED=false");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs")).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /v3/api-docs returned " + response.statusCode());
+            }
+            write(outputDir, response.body());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void write(Path outputDir, byte[] document) throws IOException {
+        Files.createDirectories(outputDir);
+        Files.write(outputDir.resolve("openapi.json"), document);
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(outputDir.resolve("openapi.json.gz")))) {
+            gzip.write(document);
+        }
+        log.info("OpenAPI document written to {} ({} bytes)", outputDir, document.length);
+    }
+}
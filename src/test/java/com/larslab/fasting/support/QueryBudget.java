@@ -0,0 +1,32 @@
+package com.larslab.fasting.support;
+
+import com.larslab.fasting.logging.JdbcStats;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Pins the number of JDBC statements a unit of work may execute.
+ *
+ * Counts come from {@link JdbcStats} on the calling thread, so the action has to run
+ * the request on the test thread (MockMvc, direct service calls) - requests sent over
+ * a real socket with TestRestTemplate are executed on a Tomcat worker and not seen here.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {}
+
+    /**
+     * Runs the action and fails unless it executed exactly {@code expected} statements.
+     * Exact instead of "at most" on purpose: a drop means the budget should be tightened.
+     */
+    public static <T> T expectStatements(long expected, Callable<T> action) throws Exception {
+        JdbcStats stats = JdbcStats.current();
+        long before = stats.statements();
+        T result = action.call();
+        long executed = stats.statements() - before;
+        if (executed != expected) {
+            throw new AssertionError("Expected " + expected + " JDBC statement(s) but " + executed + " were executed");
+        }
+        return result;
+    }
+}